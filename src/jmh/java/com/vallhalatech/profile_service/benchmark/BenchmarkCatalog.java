@@ -0,0 +1,77 @@
+package com.vallhalatech.profile_service.benchmark;
+
+import com.vallhalatech.profile_service.persistence.entities.Category;
+import com.vallhalatech.profile_service.persistence.entities.Product;
+import com.vallhalatech.profile_service.web.dtos.product.request.ProductRequest;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.SplittableRandom;
+
+/**
+ * Catálogo sintético y determinista (misma semilla, mismos datos) para que los
+ * resultados sean comparables entre commits.
+ */
+final class BenchmarkCatalog {
+
+    static final String[] SEARCH_TERMS = {"camis", "algodon", "zapatilla roja", "mesa", "xl", "lampara led"};
+
+    private static final String[] NOUNS = {"Camiseta", "Zapatilla", "Pantalón", "Chaqueta", "Lámpara", "Mesa",
+            "Silla", "Mochila", "Reloj", "Auriculares", "Cafetera", "Taza", "Cojín", "Bufanda", "Gorra"};
+    private static final String[] QUALIFIERS = {"algodón", "deportiva", "clásica", "LED", "plegable", "de cuero",
+            "inalámbricos", "térmica", "vintage", "de madera", "premium", "infantil"};
+    private static final String[] COLORS = {"roja", "azul", "negra", "blanca", "verde", "gris", "beige"};
+    private static final String[] SIZES = {"S", "M", "L", "XL", "XXL"};
+
+    private static final long SEED = 42L;
+
+    private BenchmarkCatalog() {
+    }
+
+    static String[] names(int size) {
+        SplittableRandom random = new SplittableRandom(SEED);
+        String[] names = new String[size];
+        for (int i = 0; i < size; i++) {
+            names[i] = NOUNS[random.nextInt(NOUNS.length)] + " "
+                    + QUALIFIERS[random.nextInt(QUALIFIERS.length)] + " "
+                    + COLORS[random.nextInt(COLORS.length)] + " "
+                    + SIZES[random.nextInt(SIZES.length)] + " " + i;
+        }
+        return names;
+    }
+
+    static ProductRequest request(String name, int index, Long categoryId) {
+        ProductRequest request = new ProductRequest();
+        request.setName(name);
+        request.setDescription("Descripción de prueba para " + name + ". ".repeat(20));
+        request.setImageUrl("https://cdn.example.com/products/" + index + ".jpg");
+        request.setPrice(BigDecimal.valueOf(1000 + index % 50000, 2));
+        request.setCategoryId(categoryId);
+        request.setStock(index % 500);
+        request.setSku("SKU-" + index);
+        return request;
+    }
+
+    static Product product(long id, String name, Category category) {
+        Product product = new Product();
+        product.setId(id);
+        product.setName(name);
+        product.setDescription("Descripción de prueba para " + name + ". ".repeat(20));
+        product.setImageUrl("https://cdn.example.com/products/" + id + ".jpg");
+        product.setPrice(BigDecimal.valueOf(1000 + id % 50000, 2));
+        product.setCategory(category);
+        product.setStock((int) (id % 500));
+        product.setSku("SKU-" + id);
+        product.setCreatedAt(LocalDateTime.of(2024, 1, 1, 0, 0));
+        product.setUpdatedAt(LocalDateTime.of(2024, 6, 1, 0, 0));
+        return product;
+    }
+
+    static Category category() {
+        Category category = new Category();
+        category.setId(1L);
+        category.setName("Ropa");
+        category.setDescription("Ropa y accesorios");
+        return category;
+    }
+}
@@ -0,0 +1,67 @@
+package com.vallhalatech.profile_service.benchmark;
+
+import com.vallhalatech.profile_service.persistence.entities.Category;
+import com.vallhalatech.profile_service.persistence.entities.Product;
+import com.vallhalatech.profile_service.utils.mappers.ICategoryMapper;
+import com.vallhalatech.profile_service.utils.mappers.ICategoryMapperImpl;
+import com.vallhalatech.profile_service.utils.mappers.IProductMapper;
+import com.vallhalatech.profile_service.utils.mappers.IProductMapperImpl;
+import com.vallhalatech.profile_service.web.dtos.category.response.CategoryResponse;
+import com.vallhalatech.profile_service.web.dtos.category.response.ProductResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput de los mappers MapStruct (entidad → DTO de respuesta).
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MapperBenchmark {
+
+    private AnnotationConfigApplicationContext context;
+    private IProductMapper productMapper;
+    private ICategoryMapper categoryMapper;
+    private Product product;
+    private Category category;
+
+    @Setup
+    public void setUp() {
+        // Las implementaciones generadas se inyectan entre sí: se resuelven con un contexto mínimo
+        context = new AnnotationConfigApplicationContext(IProductMapperImpl.class, ICategoryMapperImpl.class);
+        productMapper = context.getBean(IProductMapper.class);
+        categoryMapper = context.getBean(ICategoryMapper.class);
+        category = BenchmarkCatalog.category();
+        product = BenchmarkCatalog.product(1L, BenchmarkCatalog.names(1)[0], category);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public ProductResponse productToResponse() {
+        return productMapper.toResponse(product);
+    }
+
+    @Benchmark
+    public CategoryResponse categoryToResponse() {
+        return categoryMapper.toResponse(category);
+    }
+}
@@ -0,0 +1,75 @@
+package com.vallhalatech.profile_service.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vallhalatech.profile_service.persistence.entities.Category;
+import com.vallhalatech.profile_service.utils.mappers.ICategoryMapperImpl;
+import com.vallhalatech.profile_service.utils.mappers.IProductMapper;
+import com.vallhalatech.profile_service.utils.mappers.IProductMapperImpl;
+import com.vallhalatech.profile_service.web.dtos.category.response.ProductResponse;
+import com.vallhalatech.profile_service.web.dtos.response.BaseResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coste de serializar a JSON un {@link BaseResponse} con listas de productos de distinto tamaño,
+ * con la misma configuración de Jackson que usa Spring MVC.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SerializationBenchmark {
+
+    @Param({"1", "20", "100", "1000"})
+    public int items;
+
+    private ObjectMapper objectMapper;
+    private BaseResponse response;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+        IProductMapper productMapper;
+        try (AnnotationConfigApplicationContext context =
+                     new AnnotationConfigApplicationContext(IProductMapperImpl.class, ICategoryMapperImpl.class)) {
+            productMapper = context.getBean(IProductMapper.class);
+        }
+
+        Category category = BenchmarkCatalog.category();
+        String[] names = BenchmarkCatalog.names(items);
+        List<ProductResponse> products = new ArrayList<>(items);
+        for (int i = 0; i < items; i++) {
+            products.add(productMapper.toResponse(BenchmarkCatalog.product(i + 1L, names[i], category)));
+        }
+        response = BaseResponse.builder()
+                .data(products)
+                .message("Productos obtenidos exitosamente")
+                .success(true)
+                .httpStatus(HttpStatus.OK)
+                .build();
+    }
+
+    @Benchmark
+    public byte[] serializeBaseResponse() throws Exception {
+        return objectMapper.writeValueAsBytes(response);
+    }
+}
@@ -0,0 +1,133 @@
+package com.vallhalatech.profile_service.benchmark;
+
+import com.vallhalatech.profile_service.ProductServiceApplication;
+import com.vallhalatech.profile_service.persistence.entities.Category;
+import com.vallhalatech.profile_service.persistence.jdbc.ProductJdbcRepository;
+import com.vallhalatech.profile_service.persistence.repositories.ICategoryRepository;
+import com.vallhalatech.profile_service.service.IProductService;
+import com.vallhalatech.profile_service.service.cache.CategoryDictionary;
+import com.vallhalatech.profile_service.service.search.ProductSearchIndex;
+import com.vallhalatech.profile_service.utils.pagination.TotalMode;
+import com.vallhalatech.profile_service.web.dtos.product.request.ProductRequest;
+import com.vallhalatech.profile_service.web.dtos.product.request.ProductSearchFilter;
+import com.vallhalatech.profile_service.web.dtos.response.BaseResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Sort;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rutas completas del servicio (caché, índice, JPA, mapper) contra H2 embebido con un
+ * catálogo sembrado de tamaño configurable. Con searchIndex=false la búsqueda usa LIKE,
+ * lo que permite comparar ambos caminos con los mismos datos; con 1M productos se ve dónde
+ * el recorrido de la tabla deja de ser asumible.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@Threads(4)
+@State(Scope.Benchmark)
+public class ServiceBenchmark {
+
+    private static final int SEED_BATCH = 1000;
+
+    @Param({"10000", "100000", "1000000"})
+    public int catalogSize;
+
+    @Param({"true", "false"})
+    public boolean searchIndex;
+
+    private ConfigurableApplicationContext context;
+    private IProductService productService;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(ProductServiceApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.datasource.url=jdbc:h2:mem:bench-" + UUID.randomUUID() + ";MODE=MySQL;DB_CLOSE_DELAY=-1",
+                        "products.search.index.enabled=" + searchIndex,
+                        // Sin caché de facetas: cada llamada mide el agregado completo
+                        "products.facets.cache.maximum-size=0",
+                        "logging.level.root=WARN")
+                .run();
+        productService = context.getBean(IProductService.class);
+        seed();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public BaseResponse getProductById() {
+        return productService.getProductById(ThreadLocalRandom.current().nextLong(1, catalogSize + 1L));
+    }
+
+    @Benchmark
+    public BaseResponse searchProducts() {
+        String[] terms = BenchmarkCatalog.SEARCH_TERMS;
+        String term = terms[ThreadLocalRandom.current().nextInt(terms.length)];
+        return productService.searchProducts(ProductSearchFilter.of(term, null), Sort.unsorted(), 0, 20,
+                TotalMode.NONE, false, null);
+    }
+
+    @Benchmark
+    public BaseResponse searchProductsWithFacets() {
+        String[] terms = BenchmarkCatalog.SEARCH_TERMS;
+        String term = terms[ThreadLocalRandom.current().nextInt(terms.length)];
+        return productService.searchProducts(ProductSearchFilter.of(term, null), Sort.unsorted(), 0, 20,
+                TotalMode.NONE, true, null);
+    }
+
+    private void seed() {
+        Category category = new Category();
+        category.setName("Ropa");
+        category.setDescription("Ropa y accesorios");
+        Long categoryId = context.getBean(ICategoryRepository.class).save(category).getId();
+        context.getBean(CategoryDictionary.class).reload();
+
+        ProductJdbcRepository jdbcRepository = context.getBean(ProductJdbcRepository.class);
+        String[] names = BenchmarkCatalog.names(catalogSize);
+        LocalDateTime now = LocalDateTime.now();
+        List<ProductRequest> batch = new ArrayList<>(SEED_BATCH);
+        for (int i = 0; i < catalogSize; i++) {
+            batch.add(BenchmarkCatalog.request(names[i], i, categoryId));
+            if (batch.size() == SEED_BATCH) {
+                jdbcRepository.insertBatch(batch, now);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            jdbcRepository.insertBatch(batch, now);
+        }
+
+        // El índice se construyó al arrancar, antes de sembrar
+        if (searchIndex) {
+            context.getBean(ProductSearchIndex.class).rebuild();
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.vallhalatech.profile_service.benchmark;
+
+import com.vallhalatech.profile_service.ProductServiceApplication;
+import com.vallhalatech.profile_service.persistence.entities.Category;
+import com.vallhalatech.profile_service.persistence.repositories.ICategoryRepository;
+import com.vallhalatech.profile_service.service.IProductService;
+import com.vallhalatech.profile_service.service.cache.CategoryDictionary;
+import com.vallhalatech.profile_service.web.dtos.category.response.ProductResponse;
+import com.vallhalatech.profile_service.web.dtos.product.request.ProductRequest;
+import com.vallhalatech.profile_service.web.dtos.response.BaseResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Descuento de stock concurrente sobre un mismo producto: el camino anterior (leer el producto y
+ * escribir el valor absoluto, que pierde actualizaciones) frente a la reserva con un UPDATE
+ * condicional. La corrección de la reserva se comprueba en ProductStockConcurrencyTest.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@Threads(16)
+@State(Scope.Benchmark)
+public class StockUpdateBenchmark {
+
+    // Suficiente para que ninguna iteración agote el stock
+    private static final int INITIAL_STOCK = 1_000_000_000;
+
+    private ConfigurableApplicationContext context;
+    private IProductService productService;
+    private Long productId;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(ProductServiceApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.datasource.url=jdbc:h2:mem:bench-" + UUID.randomUUID() + ";MODE=MySQL;DB_CLOSE_DELAY=-1",
+                        "logging.level.root=WARN")
+                .run();
+        productService = context.getBean(IProductService.class);
+
+        Category category = new Category();
+        category.setName("Ropa");
+        category.setDescription("Ropa y accesorios");
+        Long categoryId = context.getBean(ICategoryRepository.class).save(category).getId();
+        context.getBean(CategoryDictionary.class).reload();
+
+        ProductRequest request = BenchmarkCatalog.request(BenchmarkCatalog.names(1)[0], 0, categoryId);
+        request.setStock(INITIAL_STOCK);
+        productId = ((ProductResponse) productService.addProduct(request).getData()).getId();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public BaseResponse readModifyWrite() {
+        BaseResponse read = productService.getProductById(productId);
+        int stock = ((ProductResponse) read.getData()).getStock();
+        return productService.updateStock(productId, stock - 1);
+    }
+
+    @Benchmark
+    public BaseResponse atomicReserve() {
+        return productService.reserveStock(productId, 1);
+    }
+}
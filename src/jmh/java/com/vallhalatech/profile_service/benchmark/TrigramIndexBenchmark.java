@@ -0,0 +1,101 @@
+package com.vallhalatech.profile_service.benchmark;
+
+import com.vallhalatech.profile_service.service.search.TrigramIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Índice de trigramas frente a la consulta LIKE '%term%' que usa el servicio sin índice, sobre
+ * catálogos de 100k y 1M nombres. La consulta se ejecuta en H2 embebido en modo MySQL (sin
+ * distinguir mayúsculas, como la colación por defecto): el comodín inicial impide usar el
+ * índice de name y obliga a recorrer la tabla, igual que en MySQL.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class TrigramIndexBenchmark {
+
+    @Param({"100000", "1000000"})
+    public int catalogSize;
+
+    @Param({"camis", "zapatilla roja", "xl"})
+    public String term;
+
+    private static final int INSERT_BATCH = 1000;
+
+    private TrigramIndex index;
+    private Connection connection;
+    private PreparedStatement likeQuery;
+
+    @Setup
+    public void setUp() throws SQLException {
+        String[] names = BenchmarkCatalog.names(catalogSize);
+        index = new TrigramIndex();
+        for (int i = 0; i < names.length; i++) {
+            index.upsert(i + 1L, names[i], 1L);
+        }
+
+        connection = DriverManager.getConnection(
+                "jdbc:h2:mem:trigram-" + UUID.randomUUID() + ";MODE=MySQL;IGNORECASE=TRUE");
+        try (Statement ddl = connection.createStatement()) {
+            ddl.execute("CREATE TABLE product (id BIGINT PRIMARY KEY, name VARCHAR(50) NOT NULL)");
+            ddl.execute("CREATE INDEX idx_product_name ON product (name)");
+        }
+        try (PreparedStatement insert = connection.prepareStatement("INSERT INTO product (id, name) VALUES (?, ?)")) {
+            for (int i = 0; i < names.length; i++) {
+                insert.setLong(1, i + 1L);
+                insert.setString(2, names[i]);
+                insert.addBatch();
+                if ((i + 1) % INSERT_BATCH == 0) {
+                    insert.executeBatch();
+                }
+            }
+            insert.executeBatch();
+        }
+        likeQuery = connection.prepareStatement("SELECT id FROM product WHERE name LIKE ?");
+        likeQuery.setString(1, "%" + term + "%");
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        connection.close();
+    }
+
+    @Benchmark
+    public List<Long> trigramIndex() {
+        return index.search(term, null);
+    }
+
+    @Benchmark
+    public void likeQuery(Blackhole blackhole) throws SQLException {
+        try (ResultSet rows = likeQuery.executeQuery()) {
+            while (rows.next()) {
+                blackhole.consume(rows.getLong(1));
+            }
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package com.vallhalatech.profile_service.client;
+
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.vallhalatech.profile_service.client.dtos.BaseResponse;
+import feign.FeignException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Caché de consultas de usuarios a auth-service por email.
+ * <ul>
+ *     <li>Las peticiones concurrentes para un mismo email comparten una única llamada remota.</li>
+ *     <li>Los "no encontrado" se cachean con un TTL más corto (caché negativa).</li>
+ *     <li>Pasado el TTL se sigue sirviendo el valor mientras se refresca en segundo plano
+ *     (stale-while-revalidate); si el refresco falla se conserva el valor hasta que expira.</li>
+ *     <li>Los errores de auth-service (5xx, 403, red) nunca se cachean.</li>
+ * </ul>
+ */
+@Component
+@Slf4j
+public class AuthUserCache {
+
+    private final AuthServiceClient authServiceClient;
+    private final AsyncLoadingCache<String, ResponseEntity<BaseResponse>> cache;
+    private final ExecutorService loaderExecutor;
+
+    @Autowired
+    public AuthUserCache(AuthServiceClient authServiceClient,
+                         MeterRegistry meterRegistry,
+                         @Value("${auth-users.cache.maximum-size:10000}") long maximumSize,
+                         @Value("${auth-users.cache.ttl-seconds:60}") long ttlSeconds,
+                         @Value("${auth-users.cache.stale-seconds:120}") long staleSeconds,
+                         @Value("${auth-users.cache.negative-ttl-seconds:10}") long negativeTtlSeconds,
+                         @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this(authServiceClient, meterRegistry, maximumSize, Duration.ofSeconds(ttlSeconds),
+                Duration.ofSeconds(staleSeconds), Duration.ofSeconds(negativeTtlSeconds),
+                Ticker.systemTicker(), newLoaderExecutor(virtualThreads));
+    }
+
+    AuthUserCache(AuthServiceClient authServiceClient,
+                  MeterRegistry meterRegistry,
+                  long maximumSize,
+                  Duration ttl,
+                  Duration staleWindow,
+                  Duration negativeTtl,
+                  Ticker ticker,
+                  ExecutorService loaderExecutor) {
+        this.authServiceClient = authServiceClient;
+        this.loaderExecutor = loaderExecutor;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new ResponseExpiry(ttl.plus(staleWindow), negativeTtl))
+                .refreshAfterWrite(ttl)
+                .executor(loaderExecutor)
+                .ticker(ticker)
+                .recordStats()
+                .buildAsync(this::load);
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "auth-users");
+    }
+
+    /**
+     * Misma semántica que {@link AuthServiceClient#findUserByEmail(String)}, servida desde la caché.
+     */
+    public ResponseEntity<BaseResponse> findUserByEmail(String email) {
+        try {
+            return cache.get(email.toLowerCase(Locale.ROOT)).join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof UncacheableResponseException uncacheable) {
+                return uncacheable.response;
+            }
+            if (cause instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw e;
+        }
+    }
+
+    public void invalidate(String email) {
+        cache.synchronous().invalidate(email.toLowerCase(Locale.ROOT));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        loaderExecutor.shutdownNow();
+    }
+
+    // Las cargas bloquean en la llamada HTTP: con hilos virtuales no consumen hilos de plataforma
+    private static ExecutorService newLoaderExecutor(boolean virtualThreads) {
+        return virtualThreads
+                ? Executors.newVirtualThreadPerTaskExecutor()
+                : Executors.newCachedThreadPool();
+    }
+
+    private ResponseEntity<BaseResponse> load(String email) {
+        ResponseEntity<BaseResponse> response;
+        try {
+            response = authServiceClient.findUserByEmail(email);
+        } catch (FeignException.NotFound e) {
+            response = ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        }
+
+        if (response.getStatusCode().is2xxSuccessful() || response.getStatusCode().value() == 404) {
+            return response;
+        }
+        // Se entrega al llamador pero no queda en la caché
+        throw new UncacheableResponseException(response);
+    }
+
+    private static boolean isFound(ResponseEntity<BaseResponse> response) {
+        return response.getStatusCode().is2xxSuccessful()
+                && response.getBody() != null
+                && Boolean.TRUE.equals(response.getBody().getSuccess());
+    }
+
+    private static final class ResponseExpiry implements Expiry<String, ResponseEntity<BaseResponse>> {
+        private final long positiveNanos;
+        private final long negativeNanos;
+
+        private ResponseExpiry(Duration positive, Duration negative) {
+            this.positiveNanos = positive.toNanos();
+            this.negativeNanos = negative.toNanos();
+        }
+
+        @Override
+        public long expireAfterCreate(String key, ResponseEntity<BaseResponse> value, long currentTime) {
+            return isFound(value) ? positiveNanos : negativeNanos;
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, ResponseEntity<BaseResponse> value,
+                                      long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, ResponseEntity<BaseResponse> value,
+                                    long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+
+    private static final class UncacheableResponseException extends RuntimeException {
+        private final transient ResponseEntity<BaseResponse> response;
+
+        private UncacheableResponseException(ResponseEntity<BaseResponse> response) {
+            super("Respuesta no cacheable de auth-service: " + response.getStatusCode(), null, false, false);
+            this.response = response;
+        }
+    }
+}
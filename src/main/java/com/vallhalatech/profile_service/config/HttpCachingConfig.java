@@ -0,0 +1,24 @@
+package com.vallhalatech.profile_service.config;
+
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.filter.ShallowEtagHeaderFilter;
+
+/**
+ * ETag por hash del cuerpo en los listados: con If-None-Match coincidente se responde 304
+ * sin enviar la página. El cuerpo se sigue generando, por eso solo se aplica a rutas
+ * acotadas y nunca a la exportación en streaming, que no puede almacenarse en memoria.
+ */
+@Configuration
+public class HttpCachingConfig {
+
+    @Bean
+    public FilterRegistrationBean<ShallowEtagHeaderFilter> productListEtagFilter() {
+        FilterRegistrationBean<ShallowEtagHeaderFilter> registration =
+                new FilterRegistrationBean<>(new ShallowEtagHeaderFilter());
+        registration.addUrlPatterns("/products", "/products/search", "/products/category/*", "/products/batch");
+        registration.setName("productListEtagFilter");
+        return registration;
+    }
+}
@@ -0,0 +1,34 @@
+package com.vallhalatech.profile_service.config;
+
+import com.vallhalatech.profile_service.persistence.routing.ReplicaSelector;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Configuración de products.datasource.routing. La primaria sigue siendo spring.datasource;
+ * aquí solo se declaran las réplicas y cómo repartir las lecturas entre ellas.
+ */
+@Data
+@ConfigurationProperties(prefix = "products.datasource.routing")
+public class ReadReplicaProperties {
+
+    private boolean enabled;
+    private ReplicaSelector.Strategy strategy = ReplicaSelector.Strategy.ROUND_ROBIN;
+    // Retraso a partir del cual una réplica deja de recibir lecturas
+    private long maxLagMs = 1000;
+    // Fila propia en replication_heartbeat cuando varias instancias comparten la primaria
+    private String nodeId = "default";
+    private List<Replica> replicas = new ArrayList<>();
+
+    @Data
+    public static class Replica {
+        private String name;
+        private String url;
+        private String username;
+        private String password;
+        private int maximumPoolSize = 10;
+    }
+}
@@ -0,0 +1,132 @@
+package com.vallhalatech.profile_service.config;
+
+import com.vallhalatech.profile_service.persistence.routing.ReplicaRoutingDataSource;
+import com.vallhalatech.profile_service.persistence.routing.ReplicaSelector;
+import com.vallhalatech.profile_service.persistence.routing.RoutingContext;
+import com.vallhalatech.profile_service.persistence.routing.RoutingJpaDialect;
+import com.vallhalatech.profile_service.web.filter.ReadYourWritesFilter;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.PhysicalConnectionHandlingMode;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.Ordered;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Enrutado lectura/escritura: las transacciones de solo lectura van a una réplica y el resto
+ * a la primaria (spring.datasource). Se activa con products.datasource.routing.enabled=true
+ * y al menos una entrada en products.datasource.routing.replicas.
+ *
+ * <p>El DataSource que usan JPA y JdbcTemplate es un LazyConnectionDataSourceProxy sobre un
+ * AbstractRoutingDataSource; la réplica se elige al empezar la transacción (RoutingJpaDialect)
+ * y la conexión real se pide en la primera sentencia.</p>
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "products.datasource.routing", name = "enabled", havingValue = "true")
+@EnableConfigurationProperties(ReadReplicaProperties.class)
+public class ReadReplicaRoutingConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    public ReplicaSelector replicaSelector(@Qualifier("primaryDataSource") DataSource primaryDataSource,
+                                           ReadReplicaProperties properties,
+                                           MeterRegistry meterRegistry) {
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        for (int i = 0; i < properties.getReplicas().size(); i++) {
+            ReadReplicaProperties.Replica replica = properties.getReplicas().get(i);
+            String key = replica.getName() != null ? replica.getName() : "replica-" + i;
+            HikariDataSource dataSource = DataSourceBuilder.create()
+                    .type(HikariDataSource.class)
+                    .url(replica.getUrl())
+                    .username(replica.getUsername())
+                    .password(replica.getPassword())
+                    .build();
+            dataSource.setPoolName(key);
+            dataSource.setMaximumPoolSize(replica.getMaximumPoolSize());
+            // Red de seguridad: el driver rechaza escrituras que lleguen por error a una réplica
+            dataSource.setReadOnly(true);
+            replicas.put(key, dataSource);
+        }
+        return new ReplicaSelector(primaryDataSource, replicas, properties.getStrategy(),
+                properties.getMaxLagMs(), properties.getNodeId(), meterRegistry);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primaryDataSource,
+                                 ReplicaSelector replicaSelector) {
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource();
+        routing.setDefaultTargetDataSource(primaryDataSource);
+        routing.setTargetDataSources(replicaSelector.targetDataSources());
+        routing.afterPropertiesSet();
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+
+    // El dialecto se instala antes de que el EntityManagerFactory tome el del adaptador de Hibernate
+    @Bean
+    public static BeanPostProcessor routingJpaDialectInstaller(ObjectProvider<ReplicaSelector> replicaSelector) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof LocalContainerEntityManagerFactoryBean factoryBean) {
+                    factoryBean.setJpaDialect(new RoutingJpaDialect(replicaSelector::getObject));
+                }
+                return bean;
+            }
+        };
+    }
+
+    // onPrimary dentro de una transacción de réplica necesita abrir la suya propia en la primaria
+    @Bean
+    public SmartInitializingSingleton primaryTransactionsInstaller(PlatformTransactionManager transactionManager) {
+        return () -> RoutingContext.usePrimaryTransactions(transactionManager);
+    }
+
+    @Bean
+    public DisposableBean primaryTransactionsCleaner() {
+        return RoutingContext::clearPrimaryTransactions;
+    }
+
+    // Con open-in-view la sesión vive toda la petición: sin liberar la conexión tras cada
+    // transacción, la siguiente reutilizaría la de la anterior aunque deba ir a otro destino
+    @Bean
+    public HibernatePropertiesCustomizer releaseConnectionAfterTransaction() {
+        return properties -> properties.put(AvailableSettings.CONNECTION_HANDLING,
+                PhysicalConnectionHandlingMode.DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION);
+    }
+
+    @Bean
+    public FilterRegistrationBean<ReadYourWritesFilter> readYourWritesFilter() {
+        FilterRegistrationBean<ReadYourWritesFilter> registration =
+                new FilterRegistrationBean<>(new ReadYourWritesFilter());
+        registration.setName("readYourWritesFilter");
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+}
@@ -0,0 +1,85 @@
+package com.vallhalatech.profile_service.config;
+
+import com.vallhalatech.profile_service.web.dtos.response.BaseResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+/**
+ * Temporizadores por método de servicio y de acceso JDBC.
+ * Los servicios convierten los errores en un {@link BaseResponse}, así que el resultado
+ * (success, not_found, bad_request, error) se deduce de su httpStatus y no de excepciones.
+ * Los histogramas y percentiles se configuran en management.metrics.distribution.
+ */
+@Aspect
+@Component
+public class ServiceMetricsAspect {
+
+    static final String SERVICE_TIMER = "products.service";
+    static final String JDBC_TIMER = "products.jdbc";
+
+    private final MeterRegistry meterRegistry;
+
+    @Autowired
+    public ServiceMetricsAspect(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Around("execution(com.vallhalatech.profile_service.web.dtos.response.BaseResponse "
+            + "com.vallhalatech.profile_service.service..*(..))")
+    public Object timeService(ProceedingJoinPoint joinPoint) throws Throwable {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "error";
+        try {
+            Object result = joinPoint.proceed();
+            outcome = outcomeOf((BaseResponse) result);
+            return result;
+        } finally {
+            sample.stop(Timer.builder(SERVICE_TIMER)
+                    .description("Latencia de los métodos de servicio por resultado")
+                    .tag("service", joinPoint.getSignature().getDeclaringType().getSimpleName())
+                    .tag("method", joinPoint.getSignature().getName())
+                    .tag("outcome", outcome)
+                    .register(meterRegistry));
+        }
+    }
+
+    // Los repositorios Spring Data ya se miden en spring.data.repository.invocations
+    @Around("execution(public * com.vallhalatech.profile_service.persistence.jdbc..*(..))")
+    public Object timeJdbc(ProceedingJoinPoint joinPoint) throws Throwable {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String exception = "none";
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable e) {
+            exception = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            sample.stop(Timer.builder(JDBC_TIMER)
+                    .description("Latencia de las operaciones JDBC por lotes")
+                    .tag("repository", joinPoint.getSignature().getDeclaringType().getSimpleName())
+                    .tag("method", joinPoint.getSignature().getName())
+                    .tag("exception", exception)
+                    .register(meterRegistry));
+        }
+    }
+
+    static String outcomeOf(BaseResponse response) {
+        HttpStatus status = response != null ? response.getHttpStatus() : null;
+        if (status == null || status.is5xxServerError()) {
+            return "error";
+        }
+        if (status == HttpStatus.NOT_FOUND) {
+            return "not_found";
+        }
+        if (status.is4xxClientError()) {
+            return "bad_request";
+        }
+        return "success";
+    }
+}
@@ -2,10 +2,17 @@ package com.vallhalatech.profile_service.persistence.entities;
 
 import jakarta.persistence.*;
 import lombok.Data;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.DynamicUpdate;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity(name = "product")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "product")
+@DynamicUpdate  // El UPDATE incluye solo las columnas modificadas
 @Data  // Lombok para generar getters, setters, toString, equals, hashCode
 public class Product {
 
@@ -49,6 +56,12 @@ public class Product {
     @Column(name = "is_active")
     private Boolean isActive = true;
 
+    // Bloqueo optimista: toda escritura (JPA, JPQL o JDBC) incrementa la versión
+    @Version
+    @ColumnDefault("0")
+    @Column(name = "version", nullable = false)
+    private long version;
+
     // Métodos de ciclo de vida
     @PrePersist
     protected void onCreate() {
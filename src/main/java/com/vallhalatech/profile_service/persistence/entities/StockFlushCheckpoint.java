@@ -0,0 +1,26 @@
+package com.vallhalatech.profile_service.persistence.entities;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Último segmento del diario de stock cuyos deltas ya están en product.stock.
+ * Se escribe en la misma transacción que el lote de stock, de modo que al reproducir
+ * el diario tras un reinicio ningún delta se aplica dos veces.
+ */
+@Entity(name = "stock_flush_checkpoint")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockFlushCheckpoint {
+
+    // Una fila por instancia: cada una tiene su propio diario
+    @Id
+    @Column(name = "node_id", length = 100)
+    private String nodeId;
+
+    @Column(name = "segment", nullable = false)
+    private long segment;
+}
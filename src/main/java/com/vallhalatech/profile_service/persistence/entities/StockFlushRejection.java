@@ -0,0 +1,35 @@
+package com.vallhalatech.profile_service.persistence.entities;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Delta de stock en modo hot que la base de datos rechazó al vaciarlo (el stock real quedó por
+ * debajo de lo que suponía el contador en memoria). Se guarda en la misma transacción que el
+ * checkpoint: el diario ya no lo cubre, pero la reserva se confirmó al cliente y no puede perderse.
+ * Mientras exista la fila el producto no admite nuevos deltas.
+ */
+@Entity(name = "stock_flush_rejection")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockFlushRejection {
+
+    // Cada producto en modo hot se escribe desde una sola instancia
+    @Id
+    @Column(name = "product_id")
+    private Long productId;
+
+    @Column(name = "node_id", length = 100, nullable = false)
+    private String nodeId;
+
+    @Column(name = "delta", nullable = false)
+    private long delta;
+
+    @Column(name = "rejected_at", nullable = false)
+    private LocalDateTime rejectedAt;
+}
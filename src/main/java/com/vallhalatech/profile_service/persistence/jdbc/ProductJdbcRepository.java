@@ -0,0 +1,184 @@
+package com.vallhalatech.profile_service.persistence.jdbc;
+
+import com.vallhalatech.profile_service.web.dtos.product.request.ProductRequest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Escrituras masivas sobre la tabla product mediante JDBC.
+ * Product usa GenerationType.IDENTITY, con lo que Hibernate no puede agrupar inserciones;
+ * este camino envía lotes de sentencias preparadas (en MySQL conviene
+ * rewriteBatchedStatements=true en la URL de conexión).
+ */
+@Repository
+public class ProductJdbcRepository {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO product (name, description, image_url, price, category_id, stock, sku, " +
+                    "created_at, updated_at, is_active, version) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, 0)";
+
+    // Una sola forma de sentencia para stock absoluto (?, 0) y delta (null, ?): el lote conserva el orden
+    private static final String UPDATE_STOCK_SQL =
+            "UPDATE product SET stock = COALESCE(?, stock) + ?, updated_at = ?, version = version + 1 " +
+                    "WHERE id = ? AND COALESCE(?, stock) + ? >= 0";
+
+    private static final int IN_CLAUSE_CHUNK = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public ProductJdbcRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public int[] insertBatch(List<ProductRequest> rows, LocalDateTime now) {
+        return jdbcTemplate.batchUpdate(INSERT_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                bindInsert(ps, rows.get(i), now);
+            }
+
+            @Override
+            public int getBatchSize() {
+                return rows.size();
+            }
+        });
+    }
+
+    public int insert(ProductRequest row, LocalDateTime now) {
+        return jdbcTemplate.update(INSERT_SQL, ps -> bindInsert(ps, row, now));
+    }
+
+    /**
+     * Aplica los cambios de stock en un único lote JDBC, en el orden recibido.
+     * Un recuento 0 indica que el id no existe o que el stock resultante sería negativo.
+     *
+     * <p>Los recuentos son siempre reales: si el driver responde SUCCESS_NO_INFO (lote reescrito
+     * sin filas por sentencia) el lote se deshace hasta un savepoint y los cambios se repiten uno a
+     * uno, porque un cambio rechazado por la condición stock >= 0 no se distinguiría de uno aplicado.
+     * Debe llamarse dentro de una transacción.</p>
+     */
+    public int[] updateStockBatch(List<StockChange> changes, LocalDateTime now) {
+        Timestamp timestamp = Timestamp.valueOf(now);
+        return jdbcTemplate.execute((ConnectionCallback<int[]>) connection -> {
+            Savepoint savepoint = connection.setSavepoint();
+            int[] counts;
+            try (PreparedStatement ps = connection.prepareStatement(UPDATE_STOCK_SQL)) {
+                for (StockChange change : changes) {
+                    bindStockChange(ps, change, timestamp);
+                    ps.addBatch();
+                }
+                counts = ps.executeBatch();
+            }
+            if (Arrays.stream(counts).noneMatch(count -> count == Statement.SUCCESS_NO_INFO)) {
+                connection.releaseSavepoint(savepoint);
+                return counts;
+            }
+
+            connection.rollback(savepoint);
+            try (PreparedStatement ps = connection.prepareStatement(UPDATE_STOCK_SQL)) {
+                for (int i = 0; i < changes.size(); i++) {
+                    bindStockChange(ps, changes.get(i), timestamp);
+                    counts[i] = ps.executeUpdate();
+                }
+            }
+            return counts;
+        });
+    }
+
+    // Stock actual de un producto, o null si no existe
+    public Integer findStock(long id) {
+        List<Integer> rows = jdbcTemplate.queryForList("SELECT stock FROM product WHERE id = ?", Integer.class, id);
+        return rows.isEmpty() ? null : rows.get(0);
+    }
+
+    public Map<String, Long> findIdsBySku(Collection<String> skus) {
+        Map<String, Long> ids = new HashMap<>();
+        forEachChunk(new ArrayList<>(skus), chunk -> jdbcTemplate.query(
+                "SELECT id, sku FROM product WHERE sku IN (" + placeholders(chunk.size()) + ")",
+                rs -> {
+                    ids.put(rs.getString("sku"), rs.getLong("id"));
+                },
+                chunk.toArray()));
+        return ids;
+    }
+
+    public Set<Long> findExistingIds(Collection<Long> candidateIds) {
+        Set<Long> existing = new HashSet<>();
+        forEachChunk(new ArrayList<>(candidateIds), chunk -> jdbcTemplate.query(
+                "SELECT id FROM product WHERE id IN (" + placeholders(chunk.size()) + ")",
+                rs -> {
+                    existing.add(rs.getLong("id"));
+                },
+                chunk.toArray()));
+        return existing;
+    }
+
+    private static <T> void forEachChunk(List<T> values, Consumer<List<T>> action) {
+        for (int from = 0; from < values.size(); from += IN_CLAUSE_CHUNK) {
+            action.accept(values.subList(from, Math.min(from + IN_CLAUSE_CHUNK, values.size())));
+        }
+    }
+
+    private static String placeholders(int count) {
+        return String.join(", ", Collections.nCopies(count, "?"));
+    }
+
+    private static void bindInsert(PreparedStatement ps, ProductRequest row, LocalDateTime now) throws SQLException {
+        Timestamp timestamp = Timestamp.valueOf(now);
+        ps.setString(1, row.getName());
+        ps.setString(2, row.getDescription());
+        ps.setString(3, row.getImageUrl());
+        ps.setBigDecimal(4, row.getPrice());
+        ps.setLong(5, row.getCategoryId());
+        ps.setInt(6, row.getStock());
+        ps.setString(7, row.getSku());
+        ps.setTimestamp(8, timestamp);
+        ps.setTimestamp(9, timestamp);
+        ps.setBoolean(10, true);
+    }
+
+    // Misma forma para stock absoluto (?, 0) y delta (null, ?), ver UPDATE_STOCK_SQL
+    private static void bindStockChange(PreparedStatement ps, StockChange change, Timestamp timestamp)
+            throws SQLException {
+        Integer absolute = change.absolute();
+        if (absolute != null) {
+            ps.setInt(1, absolute);
+            ps.setInt(5, absolute);
+        } else {
+            ps.setNull(1, Types.INTEGER);
+            ps.setNull(5, Types.INTEGER);
+        }
+        ps.setInt(2, change.delta());
+        ps.setTimestamp(3, timestamp);
+        ps.setLong(4, change.id());
+        ps.setInt(6, change.delta());
+    }
+
+    /**
+     * Cambio de stock por id: absolute != null fija el valor, en otro caso se suma delta.
+     */
+    public record StockChange(long id, Integer absolute, int delta) {
+    }
+}
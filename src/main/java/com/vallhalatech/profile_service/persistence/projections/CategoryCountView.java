@@ -0,0 +1,6 @@
+package com.vallhalatech.profile_service.persistence.projections;
+
+public interface CategoryCountView {
+    Long getCategoryId();
+    Long getTotal();
+}
@@ -0,0 +1,8 @@
+package com.vallhalatech.profile_service.persistence.projections;
+
+/**
+ * Fila del agregado de facetas: un grupo categoría × tramo de precio.
+ * priceBucket es floor(price / ancho del tramo).
+ */
+public record FacetRow(Long categoryId, Long priceBucket, long count, long inStock, long active) {
+}
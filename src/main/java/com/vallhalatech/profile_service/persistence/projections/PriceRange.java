@@ -0,0 +1,9 @@
+package com.vallhalatech.profile_service.persistence.projections;
+
+import java.math.BigDecimal;
+
+/**
+ * Precio mínimo y máximo de los productos que cumplen un filtro; ambos null si no hay ninguno.
+ */
+public record PriceRange(BigDecimal min, BigDecimal max) {
+}
@@ -0,0 +1,60 @@
+package com.vallhalatech.profile_service.persistence.projections;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Campos seleccionables con ?fields= en los listados. Cada campo se traduce a una columna
+ * de la lista SELECT; el id se incluye siempre porque lo necesitan el cursor y el orden.
+ */
+public enum ProductField {
+    ID("id"),
+    NAME("name"),
+    DESCRIPTION("description"),
+    IMAGE_URL("imageUrl"),
+    PRICE("price"),
+    STOCK("stock"),
+    SKU("sku"),
+    CREATED_AT("createdAt"),
+    UPDATED_AT("updatedAt"),
+    IS_ACTIVE("isActive"),
+    // Clave foránea: no requiere JOIN
+    CATEGORY_ID("categoryId"),
+    // Requiere LEFT JOIN con category
+    CATEGORY_NAME("categoryName");
+
+    private final String jsonName;
+
+    ProductField(String jsonName) {
+        this.jsonName = jsonName;
+    }
+
+    public String getJsonName() {
+        return jsonName;
+    }
+
+    public static ProductField fromJsonName(String name) {
+        for (ProductField field : values()) {
+            if (field.jsonName.equalsIgnoreCase(name)) {
+                return field;
+            }
+        }
+        throw new IllegalArgumentException("Campo desconocido: " + name);
+    }
+
+    /**
+     * Interpreta una lista separada por comas (p. ej. "id,name,price"); null si no se indica.
+     */
+    public static Set<ProductField> parse(String csv) {
+        if (csv == null || csv.isBlank()) {
+            return null;
+        }
+        Set<ProductField> fields = EnumSet.of(ID);
+        for (String name : csv.split(",")) {
+            if (!name.isBlank()) {
+                fields.add(fromJsonName(name.trim()));
+            }
+        }
+        return fields;
+    }
+}
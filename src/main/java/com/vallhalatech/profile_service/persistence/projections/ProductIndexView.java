@@ -0,0 +1,7 @@
+package com.vallhalatech.profile_service.persistence.projections;
+
+public interface ProductIndexView {
+    Long getId();
+    String getName();
+    Long getCategoryId();
+}
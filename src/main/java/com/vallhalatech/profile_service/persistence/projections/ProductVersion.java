@@ -0,0 +1,10 @@
+package com.vallhalatech.profile_service.persistence.projections;
+
+import java.time.LocalDateTime;
+
+/**
+ * Versión de bloqueo optimista y fecha de modificación de un producto: basta para
+ * resolver GET condicionales e If-Match sin cargar la entidad.
+ */
+public record ProductVersion(Long version, LocalDateTime updatedAt) {
+}
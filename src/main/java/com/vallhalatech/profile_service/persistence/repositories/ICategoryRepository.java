@@ -4,6 +4,9 @@ import com.vallhalatech.profile_service.persistence.entities.Category;
 import com.vallhalatech.profile_service.persistence.entities.Product;
 import org.hibernate.query.Page;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.awt.print.Pageable;
 import java.util.Optional;
@@ -11,4 +14,15 @@ import java.util.Optional;
 public interface ICategoryRepository extends JpaRepository<Category, Long> {
     boolean existsByName(String name);
     Optional<Category> findByName(String name);
+
+    // Una sola sentencia: el 404 se decide por filas afectadas, sin cargar la entidad
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE category c SET c.name = :name, c.description = :description WHERE c.id = :id")
+    int updateDetails(@Param("id") Long id, @Param("name") String name, @Param("description") String description);
+
+    // El borrado solo aplica si ningún producto usa la categoría; 0 filas = no existe o tiene productos
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM category c WHERE c.id = :id " +
+            "AND NOT EXISTS (SELECT 1 FROM product p WHERE p.category.id = :id)")
+    int deleteIfUnused(@Param("id") Long id);
 }
@@ -1,16 +1,81 @@
 package com.vallhalatech.profile_service.persistence.repositories;
 
 import com.vallhalatech.profile_service.persistence.entities.Product;
-import org.springframework.data.domain.Page;
+import com.vallhalatech.profile_service.persistence.projections.CategoryCountView;
+import com.vallhalatech.profile_service.persistence.projections.ProductIndexView;
+import com.vallhalatech.profile_service.persistence.projections.ProductSkuView;
+import com.vallhalatech.profile_service.persistence.projections.ProductVersion;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
+import static org.hibernate.jpa.HibernateHints.HINT_CACHEABLE;
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
 
-public interface IProductRepository  extends JpaRepository<Product, Long> {
-    Page<Product> findByNameContaining(String name, Pageable pageable);
-    Page<Product> findByCategoryId(Long categoryId, Pageable pageable);
-    Page<Product> findByNameContainingAndCategoryId(String name, Long categoryId, Pageable pageable);
-    boolean existsByCategoryId(Long categoryId);
+
+// JpaSpecificationExecutor aporta count(spec) para los totales exactos de la búsqueda dinámica
+public interface IProductRepository  extends JpaRepository<Product, Long>, JpaSpecificationExecutor<Product>,
+        IProductRepositoryCustom {
+    // Slice: no dispara el SELECT COUNT(*) adicional que requiere Page
+    // El grafo carga la categoría en el mismo SELECT: una página de N productos es una sola sentencia
+    @EntityGraph(attributePaths = "category")
+    Slice<Product> findAllBy(Pageable pageable);
+    // Caché de consultas: se invalida sola cuando Hibernate escribe en la tabla product
+    @EntityGraph(attributePaths = "category")
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
+    Slice<Product> findByCategoryId(Long categoryId, Pageable pageable);
+
+    // Conteos exactos, solo cuando el cliente los pide
+    long countByCategoryId(Long categoryId);
+
+    @Query("SELECT p.category.id AS categoryId, COUNT(p) AS total FROM product p GROUP BY p.category.id")
+    List<CategoryCountView> countGroupedByCategory();
+
+    // Carga ligera para construir el índice de búsqueda en memoria
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT p.id AS id, p.name AS name, p.category.id AS categoryId FROM product p")
+    Stream<ProductIndexView> streamIndexEntries();
+
+    // Búsqueda por SKU sobre el índice único, con la categoría en el mismo SELECT
+    @EntityGraph(attributePaths = "category")
+    Optional<Product> findBySku(String sku);
+
+    // Carga ligera del mapa SKU -> id en memoria
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT p.id AS id, p.sku AS sku FROM product p WHERE p.sku IS NOT NULL")
+    Stream<ProductSkuView> streamSkuEntries();
+
+    // Paginación por cursor (keyset): WHERE id > :after ORDER BY id, sin OFFSET
+    @EntityGraph(attributePaths = "category")
+    List<Product> findByIdGreaterThanOrderByIdAsc(Long after, Limit limit);
+    @EntityGraph(attributePaths = "category")
+    List<Product> findByCategoryIdAndIdGreaterThanOrderByIdAsc(Long categoryId, Long after, Limit limit);
+
+    // Solo versión y marca de tiempo: permite responder 304 o 409 sin cargar ni mapear el producto
+    @Query("SELECT new com.vallhalatech.profile_service.persistence.projections.ProductVersion(p.version, p.updatedAt) " +
+            "FROM product p WHERE p.id = :id")
+    Optional<ProductVersion> findVersionById(@Param("id") Long id);
+
+    // Consulta por lotes: un único IN con la categoría en JOIN FETCH (sin N+1)
+    @Query("SELECT p FROM product p LEFT JOIN FETCH p.category WHERE p.id IN :ids")
+    List<Product> findAllWithCategoryByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Borrado en una sola sentencia; deleteById carga antes la entidad
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM product p WHERE p.id = :id")
+    int deleteReturningCount(@Param("id") Long id);
 
 }
@@ -0,0 +1,63 @@
+package com.vallhalatech.profile_service.persistence.repositories;
+
+import com.vallhalatech.profile_service.persistence.entities.Product;
+import com.vallhalatech.profile_service.persistence.projections.FacetRow;
+import com.vallhalatech.profile_service.persistence.projections.PriceRange;
+import com.vallhalatech.profile_service.persistence.projections.ProductField;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Fragmento de {@link IProductRepository} para consultas construidas en tiempo de ejecución:
+ * búsqueda con filtros y orden dinámicos, proyecciones y agregados de facetas; y reservas de
+ * stock que solo invalidan en la caché de segundo nivel el producto afectado.
+ */
+public interface IProductRepositoryCustom {
+
+    /**
+     * Página de productos con su categoría en el mismo SELECT (LEFT JOIN FETCH), sin COUNT.
+     * Con limit = tamaño + 1 la fila extra indica si hay página siguiente.
+     */
+    List<Product> findPage(Specification<Product> spec, Sort sort, long offset, int limit);
+
+    /**
+     * @param fields campos a seleccionar; cada fila es un mapa campo → valor en ese orden
+     * @param spec   filtro opcional (null para no filtrar)
+     */
+    List<Map<String, Object>> findFields(Set<ProductField> fields, Specification<Product> spec,
+                                         Sort sort, long offset, int limit);
+
+    /**
+     * Agrupa los productos que cumplen el filtro por categoría y tramo de precio en una sola consulta.
+     * Cada fila lleva el recuento del grupo y cuántos tienen stock y están activos.
+     *
+     * @param priceBucketWidth ancho de los tramos de precio (mayor que cero)
+     */
+    List<FacetRow> aggregateFacets(Specification<Product> spec, BigDecimal priceBucketWidth);
+
+    /**
+     * Precio mínimo y máximo de los productos que cumplen el filtro, para acotar el número de
+     * tramos antes de agregar.
+     */
+    PriceRange findPriceRange(Specification<Product> spec);
+
+    /**
+     * Descuento atómico: una sola sentencia, solo aplica si hay stock suficiente.
+     *
+     * @return filas actualizadas (0 si el producto no existe o no hay stock suficiente)
+     */
+    int reserveStock(Long id, int quantity, LocalDateTime now);
+
+    /**
+     * Devolución atómica de unidades reservadas.
+     *
+     * @return filas actualizadas (0 si el producto no existe)
+     */
+    int releaseStock(Long id, int quantity, LocalDateTime now);
+}
@@ -0,0 +1,213 @@
+package com.vallhalatech.profile_service.persistence.repositories;
+
+import com.vallhalatech.profile_service.persistence.entities.Category;
+import com.vallhalatech.profile_service.persistence.entities.Product;
+import com.vallhalatech.profile_service.persistence.projections.FacetRow;
+import com.vallhalatech.profile_service.persistence.projections.PriceRange;
+import com.vallhalatech.profile_service.persistence.projections.ProductField;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.hibernate.query.NativeQuery;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+public class IProductRepositoryCustomImpl implements IProductRepositoryCustom {
+
+    private static final String RESERVE_STOCK_SQL =
+            "UPDATE product SET stock = stock - :quantity, updated_at = :now, version = version + 1 " +
+                    "WHERE id = :id AND stock >= :quantity";
+
+    private static final String RELEASE_STOCK_SQL =
+            "UPDATE product SET stock = stock + :quantity, updated_at = :now, version = version + 1 " +
+                    "WHERE id = :id";
+
+    // Espacio de consulta que no coincide con ninguna entidad. Un UPDATE JPQL (o uno nativo sobre la
+    // tabla product) vaciaría la región product entera y la caché de consultas en cada reserva
+    private static final String STOCK_QUERY_SPACE = "product_stock";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Product> findPage(Specification<Product> spec, Sort sort, long offset, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Product> query = cb.createQuery(Product.class);
+        Root<Product> root = query.from(Product.class);
+        root.fetch("category", JoinType.LEFT);
+
+        if (spec != null) {
+            Predicate predicate = spec.toPredicate(root, query, cb);
+            if (predicate != null) {
+                query.where(predicate);
+            }
+        }
+        query.orderBy(QueryUtils.toOrders(sort, root, cb));
+
+        return entityManager.createQuery(query)
+                .setFirstResult(Math.toIntExact(offset))
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    @Override
+    public List<Map<String, Object>> findFields(Set<ProductField> fields, Specification<Product> spec,
+                                                Sort sort, long offset, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Product> root = query.from(Product.class);
+
+        Join<Product, Category> category = fields.contains(ProductField.CATEGORY_NAME)
+                ? root.join("category", JoinType.LEFT)
+                : null;
+
+        List<Selection<?>> selections = new ArrayList<>(fields.size());
+        for (ProductField field : fields) {
+            selections.add(path(root, category, field).alias(field.getJsonName()));
+        }
+        query.multiselect(selections);
+
+        if (spec != null) {
+            Predicate predicate = spec.toPredicate(root, query, cb);
+            if (predicate != null) {
+                query.where(predicate);
+            }
+        }
+        query.orderBy(QueryUtils.toOrders(sort, root, cb));
+
+        List<Tuple> tuples = entityManager.createQuery(query)
+                .setFirstResult(Math.toIntExact(offset))
+                .setMaxResults(limit)
+                .getResultList();
+
+        List<Map<String, Object>> rows = new ArrayList<>(tuples.size());
+        for (Tuple tuple : tuples) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            for (ProductField field : fields) {
+                row.put(field.getJsonName(), tuple.get(field.getJsonName()));
+            }
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    @Override
+    public List<FacetRow> aggregateFacets(Specification<Product> spec, BigDecimal priceBucketWidth) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Product> root = query.from(Product.class);
+
+        Path<Long> categoryId = root.get("category").get("id");
+        // El ancho va como literal: el GROUP BY debe repetir exactamente la expresión del SELECT
+        Expression<Number> bucket = cb.floor(cb.quot(root.<BigDecimal>get("price"), cb.literal(priceBucketWidth)));
+        Expression<Integer> inStock = cb.<Integer>selectCase()
+                .when(cb.greaterThan(root.get("stock"), 0), 1)
+                .otherwise(0);
+        Expression<Integer> active = cb.<Integer>selectCase()
+                .when(cb.isTrue(root.get("isActive")), 1)
+                .otherwise(0);
+        query.multiselect(categoryId, bucket, cb.count(root), cb.sum(inStock), cb.sum(active));
+
+        if (spec != null) {
+            Predicate predicate = spec.toPredicate(root, query, cb);
+            if (predicate != null) {
+                query.where(predicate);
+            }
+        }
+        query.groupBy(categoryId, bucket);
+
+        List<Tuple> tuples = entityManager.createQuery(query).getResultList();
+        List<FacetRow> rows = new ArrayList<>(tuples.size());
+        for (Tuple tuple : tuples) {
+            Number priceBucket = (Number) tuple.get(1);
+            rows.add(new FacetRow(
+                    (Long) tuple.get(0),
+                    priceBucket != null ? priceBucket.longValue() : null,
+                    ((Number) tuple.get(2)).longValue(),
+                    ((Number) tuple.get(3)).longValue(),
+                    ((Number) tuple.get(4)).longValue()));
+        }
+        return rows;
+    }
+
+    @Override
+    public PriceRange findPriceRange(Specification<Product> spec) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Product> root = query.from(Product.class);
+
+        Path<BigDecimal> price = root.get("price");
+        query.multiselect(cb.min(price), cb.max(price));
+
+        if (spec != null) {
+            Predicate predicate = spec.toPredicate(root, query, cb);
+            if (predicate != null) {
+                query.where(predicate);
+            }
+        }
+
+        Tuple tuple = entityManager.createQuery(query).getSingleResult();
+        return new PriceRange(tuple.get(0, BigDecimal.class), tuple.get(1, BigDecimal.class));
+    }
+
+    @Override
+    public int reserveStock(Long id, int quantity, LocalDateTime now) {
+        return updateStock(RESERVE_STOCK_SQL, id, quantity, now);
+    }
+
+    @Override
+    public int releaseStock(Long id, int quantity, LocalDateTime now) {
+        return updateStock(RELEASE_STOCK_SQL, id, quantity, now);
+    }
+
+    // Solo se retira de la caché de segundo nivel el producto afectado; las consultas cacheadas guardan
+    // ids y ninguna filtra por stock. Tras el commit SecondLevelCacheEvictor vuelve a retirarlo
+    private int updateStock(String sql, Long id, int quantity, LocalDateTime now) {
+        entityManager.flush();
+        int updated = entityManager.createNativeQuery(sql)
+                .unwrap(NativeQuery.class)
+                .addSynchronizedQuerySpace(STOCK_QUERY_SPACE)
+                .setParameter("id", id)
+                .setParameter("quantity", quantity)
+                .setParameter("now", now)
+                .executeUpdate();
+        entityManager.clear();
+        entityManager.getEntityManagerFactory().getCache().evict(Product.class, id);
+        return updated;
+    }
+
+    private static Path<?> path(Root<Product> root, Join<Product, Category> category, ProductField field) {
+        return switch (field) {
+            case ID -> root.get("id");
+            case NAME -> root.get("name");
+            case DESCRIPTION -> root.get("description");
+            case IMAGE_URL -> root.get("imageUrl");
+            case PRICE -> root.get("price");
+            case STOCK -> root.get("stock");
+            case SKU -> root.get("sku");
+            case CREATED_AT -> root.get("createdAt");
+            case UPDATED_AT -> root.get("updatedAt");
+            case IS_ACTIVE -> root.get("isActive");
+            case CATEGORY_ID -> root.get("category").get("id");
+            case CATEGORY_NAME -> category.get("name");
+        };
+    }
+}
@@ -0,0 +1,7 @@
+package com.vallhalatech.profile_service.persistence.repositories;
+
+import com.vallhalatech.profile_service.persistence.entities.StockFlushCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface IStockFlushCheckpointRepository extends JpaRepository<StockFlushCheckpoint, String> {
+}
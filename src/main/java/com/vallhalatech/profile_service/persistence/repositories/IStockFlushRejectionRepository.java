@@ -0,0 +1,11 @@
+package com.vallhalatech.profile_service.persistence.repositories;
+
+import com.vallhalatech.profile_service.persistence.entities.StockFlushRejection;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+
+public interface IStockFlushRejectionRepository extends JpaRepository<StockFlushRejection, Long> {
+
+    List<StockFlushRejection> findByNodeId(String nodeId);
+}
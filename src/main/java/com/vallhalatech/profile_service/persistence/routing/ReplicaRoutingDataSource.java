@@ -0,0 +1,16 @@
+package com.vallhalatech.profile_service.persistence.routing;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+/**
+ * Entrega conexiones de la réplica fijada para la transacción en curso o, si no hay ninguna,
+ * de la primaria. Se usa detrás de un LazyConnectionDataSourceProxy para que la conexión
+ * real se pida en la primera sentencia, con la decisión de enrutado ya tomada.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return RoutingContext.currentReplica();
+    }
+}
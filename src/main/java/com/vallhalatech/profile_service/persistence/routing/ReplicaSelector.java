@@ -0,0 +1,249 @@
+package com.vallhalatech.profile_service.persistence.routing;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Elige la réplica para cada transacción de solo lectura y mide el retraso de cada una.
+ *
+ * <p>El retraso se mide con un latido: en cada sondeo se escribe la hora en la tabla
+ * replication_heartbeat de la primaria y se lee la fila de este nodo en cada réplica. El retraso
+ * es el tiempo que lleva sin verse el primer latido que la réplica aún no tiene (0 si los tiene
+ * todos). Una réplica que supera el retraso máximo, o que no responde, deja de recibir lecturas
+ * hasta el siguiente sondeo que la encuentre al día.</p>
+ */
+@Slf4j
+public class ReplicaSelector implements DisposableBean {
+
+    public enum Strategy {
+        ROUND_ROBIN,
+        // Menos conexiones activas en su pool; empates en turno rotatorio
+        LEAST_LOADED
+    }
+
+    private static final String CREATE_HEARTBEAT_SQL =
+            "CREATE TABLE IF NOT EXISTS replication_heartbeat " +
+                    "(node_id VARCHAR(64) NOT NULL PRIMARY KEY, beat_at BIGINT NOT NULL)";
+    // Latidos recientes que se conservan para localizar el primero que falta en una réplica
+    private static final int RETAINED_BEATS = 64;
+
+    private final JdbcTemplate primaryJdbc;
+    private final List<Replica> replicas;
+    private final Strategy strategy;
+    private final long maxLagMillis;
+    private final String nodeId;
+    private final AtomicInteger next = new AtomicInteger();
+    private final ReentrantLock probeLock = new ReentrantLock();
+    private final Deque<Long> beats = new ArrayDeque<>();
+    private final Counter primaryReads;
+    private final Counter replicaReads;
+
+    public ReplicaSelector(DataSource primary, Map<String, DataSource> replicaDataSources, Strategy strategy,
+                           long maxLagMillis, String nodeId, MeterRegistry meterRegistry) {
+        this.primaryJdbc = new JdbcTemplate(primary);
+        this.strategy = strategy;
+        this.maxLagMillis = maxLagMillis;
+        this.nodeId = nodeId;
+        this.replicas = new ArrayList<>();
+        replicaDataSources.forEach((key, dataSource) -> replicas.add(new Replica(key, dataSource, maxLagMillis)));
+
+        this.primaryReads = Counter.builder("products.datasource.reads")
+                .tag("target", "primary")
+                .description("Transacciones de solo lectura servidas por la primaria")
+                .register(meterRegistry);
+        this.replicaReads = Counter.builder("products.datasource.reads")
+                .tag("target", "replica")
+                .description("Transacciones de solo lectura servidas por una réplica")
+                .register(meterRegistry);
+        for (Replica replica : replicas) {
+            Gauge.builder("products.datasource.replica.lag", replica, Replica::lagMillis)
+                    .tag("replica", replica.key())
+                    .description("Retraso medido de la réplica en ms (-1 si no responde)")
+                    .baseUnit("milliseconds")
+                    .register(meterRegistry);
+        }
+
+        primaryJdbc.execute(CREATE_HEARTBEAT_SQL);
+    }
+
+    /**
+     * Destino de una transacción de solo lectura: la clave de una réplica, o null para la primaria.
+     */
+    public String route(boolean primaryRequired) {
+        String replica = primaryRequired ? null : select();
+        if (replica == null) {
+            primaryReads.increment();
+        } else {
+            replicaReads.increment();
+        }
+        return replica;
+    }
+
+    public List<Replica> replicas() {
+        return List.copyOf(replicas);
+    }
+
+    public Map<Object, Object> targetDataSources() {
+        Map<Object, Object> targets = new LinkedHashMap<>();
+        replicas.forEach(replica -> targets.put(replica.key(), replica.dataSource()));
+        return targets;
+    }
+
+    @Scheduled(fixedDelayString = "${products.datasource.routing.lag-check-interval-ms:500}")
+    public void probe() {
+        probeLock.lock();
+        try {
+            // Primero el latido nuevo: una réplica que aún no lo ve acumula retraso desde ahora
+            long beat = System.currentTimeMillis();
+            if (primaryJdbc.update("UPDATE replication_heartbeat SET beat_at = ? WHERE node_id = ?",
+                    beat, nodeId) == 0) {
+                primaryJdbc.update("INSERT INTO replication_heartbeat (node_id, beat_at) VALUES (?, ?)",
+                        nodeId, beat);
+            }
+            beats.addLast(beat);
+            while (beats.size() > RETAINED_BEATS) {
+                beats.removeFirst();
+            }
+
+            for (Replica replica : replicas) {
+                replica.update(measureLag(replica), maxLagMillis);
+            }
+        } catch (Exception e) {
+            log.warn("No se pudo escribir el latido de replicación en la primaria: {}", e.getMessage());
+        } finally {
+            probeLock.unlock();
+        }
+    }
+
+    @Override
+    public void destroy() {
+        for (Replica replica : replicas) {
+            if (replica.dataSource() instanceof AutoCloseable closeable) {
+                try {
+                    closeable.close();
+                } catch (Exception e) {
+                    log.debug("Error al cerrar la réplica {}: {}", replica.key(), e.getMessage());
+                }
+            }
+        }
+    }
+
+    // Se llama con probeLock tomado
+    private long measureLag(Replica replica) {
+        try {
+            List<Long> rows = replica.jdbc().queryForList(
+                    "SELECT beat_at FROM replication_heartbeat WHERE node_id = ?", Long.class, nodeId);
+            if (rows.isEmpty()) {
+                return -1;
+            }
+            long seen = rows.get(0);
+            long now = System.currentTimeMillis();
+            for (long beat : beats) {
+                if (beat > seen) {
+                    return now - beat;
+                }
+            }
+            return 0;
+        } catch (Exception e) {
+            log.debug("Réplica {} sin respuesta: {}", replica.key(), e.getMessage());
+            return -1;
+        }
+    }
+
+    private String select() {
+        int size = replicas.size();
+        if (size == 0) {
+            return null;
+        }
+        int start = Math.floorMod(next.getAndIncrement(), size);
+        Replica chosen = null;
+        int chosenLoad = Integer.MAX_VALUE;
+        for (int i = 0; i < size; i++) {
+            Replica candidate = replicas.get((start + i) % size);
+            if (!candidate.isAvailable()) {
+                continue;
+            }
+            if (strategy == Strategy.ROUND_ROBIN) {
+                return candidate.key();
+            }
+            int load = candidate.activeConnections();
+            if (load < chosenLoad) {
+                chosen = candidate;
+                chosenLoad = load;
+            }
+        }
+        return chosen != null ? chosen.key() : null;
+    }
+
+    public static final class Replica {
+
+        private final String key;
+        private final DataSource dataSource;
+        private final JdbcTemplate jdbc;
+        // -1 mientras no se haya medido o si la réplica no responde
+        private volatile long lagMillis = -1;
+        private volatile boolean available;
+
+        private Replica(String key, DataSource dataSource, long maxLagMillis) {
+            this.key = key;
+            this.dataSource = dataSource;
+            this.jdbc = new JdbcTemplate(dataSource);
+            // El sondeo no debe quedarse esperando a una réplica caída más de lo que tolera el retraso
+            this.jdbc.setQueryTimeout((int) Math.max(1, maxLagMillis / 1000));
+        }
+
+        public String key() {
+            return key;
+        }
+
+        public DataSource dataSource() {
+            return dataSource;
+        }
+
+        public long lagMillis() {
+            return lagMillis;
+        }
+
+        public boolean isAvailable() {
+            return available;
+        }
+
+        private JdbcTemplate jdbc() {
+            return jdbc;
+        }
+
+        private void update(long lag, long maxLagMillis) {
+            boolean nowAvailable = lag >= 0 && lag <= maxLagMillis;
+            if (nowAvailable != available) {
+                log.info("Réplica {} {} (retraso {} ms)", key, nowAvailable ? "disponible" : "excluida", lag);
+            }
+            lagMillis = lag;
+            available = nowAvailable;
+        }
+
+        private int activeConnections() {
+            if (dataSource instanceof HikariDataSource hikari) {
+                HikariPoolMXBean pool = hikari.getHikariPoolMXBean();
+                return pool != null ? pool.getActiveConnections() : 0;
+            }
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.vallhalatech.profile_service.persistence.routing;
+
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.function.Supplier;
+
+/**
+ * Estado por hilo del enrutado lectura/escritura.
+ *
+ * <ul>
+ *     <li>La réplica elegida para la transacción de solo lectura en curso (null = primaria).</li>
+ *     <li>Bloques que deben leer de la primaria aunque sean de solo lectura: cargas que rellenan
+ *     cachés compartidas o índices en memoria, donde una réplica retrasada dejaría datos viejos
+ *     más allá del propio retraso.</li>
+ *     <li>Lectura de las propias escrituras: dentro de una petición, tras la primera transacción
+ *     de escritura todas las lecturas van a la primaria.</li>
+ * </ul>
+ *
+ * Sin enrutado activo nada consulta este estado y los métodos son inocuos.
+ */
+public final class RoutingContext {
+
+    private static final ThreadLocal<String> REPLICA = new ThreadLocal<>();
+    private static final ThreadLocal<Boolean> PRIMARY_REQUIRED = new ThreadLocal<>();
+    // Presente solo dentro de una petición HTTP; true cuando ya hubo una escritura
+    private static final ThreadLocal<Boolean> REQUEST_WROTE = new ThreadLocal<>();
+
+    // Transacción propia en la primaria para onPrimary dentro de una transacción servida por una réplica
+    private static volatile TransactionTemplate primaryTransaction;
+
+    private RoutingContext() {
+    }
+
+    /**
+     * Ejecuta la acción leyendo de la primaria aunque abra transacciones de solo lectura.
+     * Si el hilo ya está dentro de una transacción servida por una réplica, la acción no se une
+     * a ella (leería de esa réplica): se ejecuta en una transacción nueva contra la primaria.
+     */
+    public static <T> T onPrimary(Supplier<T> action) {
+        Boolean previous = PRIMARY_REQUIRED.get();
+        PRIMARY_REQUIRED.set(Boolean.TRUE);
+        try {
+            TransactionTemplate separate = primaryTransaction;
+            if (REPLICA.get() != null && separate != null) {
+                return separate.execute(status -> action.get());
+            }
+            return action.get();
+        } finally {
+            if (previous == null) {
+                PRIMARY_REQUIRED.remove();
+            }
+        }
+    }
+
+    public static void runOnPrimary(Runnable action) {
+        onPrimary(() -> {
+            action.run();
+            return null;
+        });
+    }
+
+    /**
+     * Registra el gestor de transacciones con el que onPrimary suspende una transacción de réplica.
+     */
+    public static void usePrimaryTransactions(PlatformTransactionManager transactionManager) {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        template.setReadOnly(true);
+        primaryTransaction = template;
+    }
+
+    public static void clearPrimaryTransactions() {
+        primaryTransaction = null;
+    }
+
+    public static void openRequestScope() {
+        REQUEST_WROTE.set(Boolean.FALSE);
+    }
+
+    public static void closeRequestScope() {
+        REQUEST_WROTE.remove();
+    }
+
+    static boolean isPrimaryRequired() {
+        return PRIMARY_REQUIRED.get() != null || Boolean.TRUE.equals(REQUEST_WROTE.get());
+    }
+
+    static void recordWrite() {
+        // Fuera de una petición (tareas programadas, arranque) no hay nada que fijar
+        if (REQUEST_WROTE.get() != null) {
+            REQUEST_WROTE.set(Boolean.TRUE);
+        }
+    }
+
+    static String currentReplica() {
+        return REPLICA.get();
+    }
+
+    /**
+     * Fija la réplica de la transacción que empieza y devuelve la anterior para restaurarla al terminar.
+     */
+    static String bindReplica(String replica) {
+        String previous = REPLICA.get();
+        restoreReplica(replica);
+        return previous;
+    }
+
+    static void restoreReplica(String replica) {
+        if (replica == null) {
+            REPLICA.remove();
+        } else {
+            REPLICA.set(replica);
+        }
+    }
+}
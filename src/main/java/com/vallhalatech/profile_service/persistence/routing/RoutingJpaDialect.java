@@ -0,0 +1,75 @@
+package com.vallhalatech.profile_service.persistence.routing;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceException;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.springframework.orm.jpa.vendor.HibernateJpaDialect;
+import org.springframework.transaction.TransactionDefinition;
+
+import java.sql.SQLException;
+import java.util.function.Supplier;
+
+/**
+ * Toma la decisión de enrutado al empezar cada transacción, antes de que Hibernate pida la conexión.
+ *
+ * <p>Las de solo lectura van a una réplica salvo que el hilo exija la primaria; las de escritura
+ * van siempre a la primaria y fijan la petición en curso a ella. Una sesión servida por una réplica
+ * lee de la caché de segundo nivel pero no la rellena (CacheMode.GET): un valor leído de una réplica
+ * retrasada quedaría en caché hasta la siguiente escritura de esa entidad.</p>
+ */
+public class RoutingJpaDialect extends HibernateJpaDialect {
+
+    private final Supplier<ReplicaSelector> replicaSelector;
+
+    public RoutingJpaDialect(Supplier<ReplicaSelector> replicaSelector) {
+        this.replicaSelector = replicaSelector;
+    }
+
+    @Override
+    public Object beginTransaction(EntityManager entityManager, TransactionDefinition definition)
+            throws PersistenceException, SQLException {
+        String replica = null;
+        if (definition.isReadOnly()) {
+            replica = replicaSelector.get().route(RoutingContext.isPrimaryRequired());
+        } else {
+            RoutingContext.recordWrite();
+        }
+
+        String previousReplica = RoutingContext.bindReplica(replica);
+        Session session = entityManager.unwrap(Session.class);
+        CacheMode previousCacheMode = session.getCacheMode();
+        try {
+            if (replica != null) {
+                session.setCacheMode(CacheMode.GET);
+            }
+            Object transactionData = super.beginTransaction(entityManager, definition);
+            return new RoutedTransactionData(transactionData, session, previousCacheMode, previousReplica);
+        } catch (SQLException | RuntimeException e) {
+            session.setCacheMode(previousCacheMode);
+            RoutingContext.restoreReplica(previousReplica);
+            throw e;
+        }
+    }
+
+    @Override
+    public void cleanupTransaction(Object transactionData) {
+        if (!(transactionData instanceof RoutedTransactionData routed)) {
+            super.cleanupTransaction(transactionData);
+            return;
+        }
+        try {
+            super.cleanupTransaction(routed.delegate());
+        } finally {
+            // Con open-in-view la sesión sigue viva para las transacciones siguientes de la petición
+            if (routed.session().isOpen()) {
+                routed.session().setCacheMode(routed.previousCacheMode());
+            }
+            RoutingContext.restoreReplica(routed.previousReplica());
+        }
+    }
+
+    private record RoutedTransactionData(Object delegate, Session session, CacheMode previousCacheMode,
+                                         String previousReplica) {
+    }
+}
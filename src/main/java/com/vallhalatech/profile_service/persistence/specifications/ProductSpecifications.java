@@ -0,0 +1,149 @@
+package com.vallhalatech.profile_service.persistence.specifications;
+
+import com.vallhalatech.profile_service.persistence.entities.Product;
+import com.vallhalatech.profile_service.web.dtos.product.request.ProductSearchFilter;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Criterios de búsqueda de productos como Specifications componibles.
+ * Cada filtro ausente devuelve un predicado nulo, así que la consulta final solo lleva
+ * las condiciones pedidas: una única sentencia con predicados de igualdad o rango sobre columnas.
+ */
+public final class ProductSpecifications {
+
+    // Campos ordenables expuestos en la API → atributo de Product
+    private static final Map<String, String> SORTABLE = Map.of(
+            "id", "id",
+            "name", "name",
+            "price", "price",
+            "stock", "stock",
+            "sku", "sku",
+            "createdAt", "createdAt",
+            "updatedAt", "updatedAt");
+
+    private ProductSpecifications() {
+    }
+
+    public static Specification<Product> matching(ProductSearchFilter filter) {
+        if (filter == null) {
+            return Specification.where(null);
+        }
+        return Specification.allOf(
+                nameContains(filter.getName()),
+                inCategory(filter.getCategoryId()),
+                skuEquals(filter.getSku()),
+                priceBetween(filter.getMinPrice(), filter.getMaxPrice()),
+                inStock(filter.getInStock()),
+                active(filter.getActive()),
+                createdBetween(filter.getCreatedFrom(), filter.getCreatedTo()),
+                updatedBetween(filter.getUpdatedFrom(), filter.getUpdatedTo()));
+    }
+
+    // LIKE con los comodines del término escapados, como los métodos derivados *Containing
+    public static Specification<Product> nameContains(String name) {
+        return (root, query, cb) -> name == null
+                ? null
+                : cb.like(root.get("name"), "%" + escapeLike(name) + "%", '\\');
+    }
+
+    public static Specification<Product> inCategory(Long categoryId) {
+        return (root, query, cb) -> categoryId == null ? null : cb.equal(root.get("category").get("id"), categoryId);
+    }
+
+    public static Specification<Product> skuEquals(String sku) {
+        return (root, query, cb) -> sku == null ? null : cb.equal(root.get("sku"), sku);
+    }
+
+    public static Specification<Product> priceBetween(BigDecimal min, BigDecimal max) {
+        return (root, query, cb) -> {
+            if (min != null && max != null) {
+                return cb.between(root.get("price"), min, max);
+            } else if (min != null) {
+                return cb.greaterThanOrEqualTo(root.get("price"), min);
+            } else if (max != null) {
+                return cb.lessThanOrEqualTo(root.get("price"), max);
+            }
+            return null;
+        };
+    }
+
+    public static Specification<Product> inStock(Boolean inStock) {
+        return (root, query, cb) -> {
+            if (inStock == null) {
+                return null;
+            }
+            return inStock ? cb.greaterThan(root.get("stock"), 0) : cb.lessThanOrEqualTo(root.get("stock"), 0);
+        };
+    }
+
+    public static Specification<Product> active(Boolean active) {
+        return (root, query, cb) -> active == null ? null : cb.equal(root.get("isActive"), active);
+    }
+
+    public static Specification<Product> createdBetween(LocalDateTime from, LocalDateTime to) {
+        return timeRange("createdAt", from, to);
+    }
+
+    public static Specification<Product> updatedBetween(LocalDateTime from, LocalDateTime to) {
+        return timeRange("updatedAt", from, to);
+    }
+
+    public static Specification<Product> idGreaterThan(long afterId) {
+        return (root, query, cb) -> cb.greaterThan(root.get("id"), afterId);
+    }
+
+    /**
+     * Interpreta "-price,name" (el signo menos indica orden descendente).
+     * Se añade siempre el id como desempate para que la paginación sea estable.
+     *
+     * @throws IllegalArgumentException si algún campo no es ordenable
+     */
+    public static Sort parseSort(String sort) {
+        List<Sort.Order> orders = new ArrayList<>();
+        boolean hasId = false;
+        if (sort != null) {
+            for (String token : sort.split(",")) {
+                String field = token.trim();
+                if (field.isEmpty()) {
+                    continue;
+                }
+                boolean descending = field.startsWith("-");
+                String attribute = SORTABLE.get(descending ? field.substring(1) : field);
+                if (attribute == null) {
+                    throw new IllegalArgumentException("Campo de orden no admitido: " + field
+                            + " (admitidos: " + String.join(", ", SORTABLE.keySet()) + ")");
+                }
+                hasId |= attribute.equals("id");
+                orders.add(descending ? Sort.Order.desc(attribute) : Sort.Order.asc(attribute));
+            }
+        }
+        if (!hasId) {
+            orders.add(Sort.Order.asc("id"));
+        }
+        return Sort.by(orders);
+    }
+
+    private static Specification<Product> timeRange(String attribute, LocalDateTime from, LocalDateTime to) {
+        return (root, query, cb) -> {
+            if (from != null && to != null) {
+                return cb.and(cb.greaterThanOrEqualTo(root.get(attribute), from), cb.lessThan(root.get(attribute), to));
+            } else if (from != null) {
+                return cb.greaterThanOrEqualTo(root.get(attribute), from);
+            } else if (to != null) {
+                return cb.lessThan(root.get(attribute), to);
+            }
+            return null;
+        };
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
@@ -0,0 +1,12 @@
+package com.vallhalatech.profile_service.service;
+
+
+import com.vallhalatech.profile_service.utils.transfer.TransferFormat;
+import org.springframework.stereotype.Service;
+
+import java.io.OutputStream;
+
+@Service
+public interface IProductExportService {
+    void exportProducts(TransferFormat format, OutputStream output);
+}
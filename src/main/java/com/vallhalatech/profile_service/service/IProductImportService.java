@@ -0,0 +1,13 @@
+package com.vallhalatech.profile_service.service;
+
+
+import com.vallhalatech.profile_service.utils.transfer.TransferFormat;
+import com.vallhalatech.profile_service.web.dtos.response.BaseResponse;
+import org.springframework.stereotype.Service;
+
+import java.io.InputStream;
+
+@Service
+public interface IProductImportService {
+    BaseResponse importProducts(InputStream input, TransferFormat format);
+}
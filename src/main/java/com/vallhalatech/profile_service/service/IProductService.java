@@ -1,18 +1,47 @@
 package com.vallhalatech.profile_service.service;
 
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.vallhalatech.profile_service.persistence.projections.ProductField;
+import com.vallhalatech.profile_service.persistence.projections.ProductVersion;
+import com.vallhalatech.profile_service.utils.pagination.TotalMode;
+import com.vallhalatech.profile_service.web.dtos.product.request.BulkStockUpdateRequest;
 import com.vallhalatech.profile_service.web.dtos.product.request.ProductRequest;
+import com.vallhalatech.profile_service.web.dtos.product.request.ProductSearchFilter;
 import com.vallhalatech.profile_service.web.dtos.response.BaseResponse;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
 @Service
 public interface IProductService {
     BaseResponse addProduct(ProductRequest productRequest);
     BaseResponse getProductById(Long id);
-    BaseResponse getAllProducts(int page, int size);
-    BaseResponse searchProducts(String name, Long categoryId, int page, int size);
-    BaseResponse getProductsByCategory(Long categoryId, int page, int size);
+    BaseResponse getProductsByIds(List<Long> ids);
+    BaseResponse getProductBySku(String sku);
+    BaseResponse resolveSkus(List<String> skus);
+    Optional<ProductVersion> getProductVersion(Long id);
+    BaseResponse getAllProducts(int page, int size, TotalMode totalMode);
+    BaseResponse searchProducts(ProductSearchFilter filter, Sort sort, int page, int size, TotalMode totalMode,
+                                boolean withFacets, BigDecimal priceBucketWidth);
+    BaseResponse getProductsByCategory(Long categoryId, int page, int size, TotalMode totalMode);
+    BaseResponse getAllProductsAfter(String after, int size);
+    BaseResponse searchProductsAfter(ProductSearchFilter filter, String after, int size,
+                                     boolean withFacets, BigDecimal priceBucketWidth);
+    BaseResponse getProductsByCategoryAfter(Long categoryId, String after, int size);
+    BaseResponse searchProductFields(ProductSearchFilter filter, Set<ProductField> fields, Sort sort,
+                                     int page, int size, TotalMode totalMode);
+    BaseResponse searchProductFieldsAfter(ProductSearchFilter filter, Set<ProductField> fields,
+                                          String after, int size);
     BaseResponse updateProduct(Long id, ProductRequest productRequest);
+    BaseResponse patchProduct(Long id, JsonNode patch, Long expectedVersion);
     BaseResponse updateStock(Long id, Integer stock);
+    BaseResponse reserveStock(Long id, Integer quantity);
+    BaseResponse releaseStock(Long id, Integer quantity);
+    BaseResponse updateStockBulk(List<BulkStockUpdateRequest.Item> items);
     BaseResponse deleteProduct(Long id);
 }
@@ -0,0 +1,148 @@
+package com.vallhalatech.profile_service.service.cache;
+
+import com.vallhalatech.profile_service.persistence.entities.Category;
+import com.vallhalatech.profile_service.persistence.repositories.ICategoryRepository;
+import com.vallhalatech.profile_service.persistence.routing.RoutingContext;
+import com.vallhalatech.profile_service.service.events.CategoryChangedEvent;
+import com.vallhalatech.profile_service.utils.mappers.ICategoryMapper;
+import com.vallhalatech.profile_service.web.dtos.category.response.CategoryResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Diccionario de categorías en memoria.
+ * Mantiene una instantánea inmutable indexada por id y por nombre que se reemplaza
+ * completa (copy-on-write) tras cada alta, modificación o baja de categoría.
+ * Las lecturas no tocan la base de datos ni toman locks.
+ */
+@Component
+@Slf4j
+public class CategoryDictionary {
+
+    private final ICategoryRepository categoryRepository;
+    private final ICategoryMapper categoryMapper;
+    private final ReentrantLock reloadLock = new ReentrantLock();
+
+    private volatile Snapshot snapshot;
+
+    @Autowired
+    public CategoryDictionary(ICategoryRepository categoryRepository, ICategoryMapper categoryMapper) {
+        this.categoryRepository = categoryRepository;
+        this.categoryMapper = categoryMapper;
+    }
+
+    /**
+     * Devuelve una copia desacoplada de la categoría, apta para asignarla a un producto:
+     * Hibernate solo usa su id para la clave foránea.
+     * Si el id no está en la instantánea (p. ej. creado por otra instancia) se consulta la base de datos.
+     */
+    public Optional<Category> findById(Long id) {
+        if (id == null) {
+            return Optional.empty();
+        }
+        Category category = current().byId().get(id);
+        if (category != null) {
+            return Optional.of(copy(category));
+        }
+        Optional<Category> fromDatabase = RoutingContext.onPrimary(() -> categoryRepository.findById(id));
+        fromDatabase.ifPresent(found -> reload());
+        return fromDatabase;
+    }
+
+    public boolean existsById(Long id) {
+        return findById(id).isPresent();
+    }
+
+    public Optional<Category> findByName(String name) {
+        if (name == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(current().byName().get(nameKey(name))).map(CategoryDictionary::copy);
+    }
+
+    public boolean existsByName(String name) {
+        return name != null && current().byName().containsKey(nameKey(name));
+    }
+
+    public Optional<CategoryResponse> getResponse(Long id) {
+        return Optional.ofNullable(current().responsesById().get(id));
+    }
+
+    public List<CategoryResponse> getAllResponses() {
+        return current().responses();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCategoryChanged(CategoryChangedEvent event) {
+        reload();
+    }
+
+    // Red de seguridad para cambios hechos por otras instancias del servicio
+    @Scheduled(fixedDelayString = "${products.category-dictionary.refresh-interval-ms:300000}",
+            initialDelayString = "${products.category-dictionary.refresh-interval-ms:300000}")
+    public void reload() {
+        reloadLock.lock();
+        try {
+            // La recarga sigue a cada escritura de categorías: se lee de la primaria
+            List<Category> categories = RoutingContext.onPrimary(() -> categoryRepository.findAll());
+            Map<Long, Category> byId = new HashMap<>();
+            Map<String, Category> byName = new HashMap<>();
+            Map<Long, CategoryResponse> responsesById = new HashMap<>();
+            for (Category category : categories) {
+                Category detached = copy(category);
+                byId.put(detached.getId(), detached);
+                byName.put(nameKey(detached.getName()), detached);
+                responsesById.put(detached.getId(), categoryMapper.toResponse(detached));
+            }
+            List<CategoryResponse> responses = categories.stream()
+                    .map(category -> responsesById.get(category.getId()))
+                    .toList();
+            snapshot = new Snapshot(Map.copyOf(byId), Map.copyOf(byName), Map.copyOf(responsesById), responses);
+        } catch (Exception e) {
+            log.warn("No se pudo recargar el diccionario de categorías: {}", e.getMessage());
+        } finally {
+            reloadLock.unlock();
+        }
+    }
+
+    private Snapshot current() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            reload();
+            current = snapshot;
+        }
+        if (current == null) {
+            throw new IllegalStateException("Diccionario de categorías no disponible");
+        }
+        return current;
+    }
+
+    // La unicidad del nombre en MySQL no distingue mayúsculas
+    private static String nameKey(String name) {
+        return name.toLowerCase(Locale.ROOT);
+    }
+
+    private static Category copy(Category source) {
+        Category copy = new Category();
+        copy.setId(source.getId());
+        copy.setName(source.getName());
+        copy.setDescription(source.getDescription());
+        return copy;
+    }
+
+    private record Snapshot(Map<Long, Category> byId,
+                            Map<String, Category> byName,
+                            Map<Long, CategoryResponse> responsesById,
+                            List<CategoryResponse> responses) {
+    }
+}
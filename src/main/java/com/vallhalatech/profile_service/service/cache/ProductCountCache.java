@@ -0,0 +1,80 @@
+package com.vallhalatech.profile_service.service.cache;
+
+import com.vallhalatech.profile_service.persistence.projections.CategoryCountView;
+import com.vallhalatech.profile_service.persistence.repositories.IProductRepository;
+import com.vallhalatech.profile_service.service.events.ProductChangedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Conteo aproximado de productos por categoría.
+ * Se recalcula con una única consulta agrupada cada cierto intervalo, de modo que
+ * los listados con ?withTotal=true no disparan un COUNT(*) por petición.
+ */
+@Component
+@Slf4j
+public class ProductCountCache {
+
+    private final IProductRepository productRepository;
+
+    // Instantánea inmutable; se reemplaza completa en cada refresco
+    private volatile Snapshot snapshot;
+
+    @Autowired
+    public ProductCountCache(IProductRepository productRepository) {
+        this.productRepository = productRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        refresh();
+    }
+
+    @Scheduled(fixedDelayString = "${products.count-cache.refresh-interval-ms:60000}",
+            initialDelayString = "${products.count-cache.refresh-interval-ms:60000}")
+    public void refresh() {
+        try {
+            Map<Long, Long> byCategory = new HashMap<>();
+            long total = 0;
+            for (CategoryCountView row : productRepository.countGroupedByCategory()) {
+                total += row.getTotal();
+                if (row.getCategoryId() != null) {
+                    byCategory.put(row.getCategoryId(), row.getTotal());
+                }
+            }
+            snapshot = new Snapshot(Map.copyOf(byCategory), total);
+        } catch (Exception e) {
+            log.warn("No se pudo refrescar el conteo de productos: {}", e.getMessage());
+        }
+    }
+
+    // Una importación masiva desvía la estimación más que el resto de escrituras juntas
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        if (event.type() == ProductChangedEvent.ChangeType.BULK_IMPORTED) {
+            refresh();
+        }
+    }
+
+    public Optional<Long> estimateTotal() {
+        Snapshot current = snapshot;
+        return current == null ? Optional.empty() : Optional.of(current.total());
+    }
+
+    public Optional<Long> estimateByCategory(Long categoryId) {
+        Snapshot current = snapshot;
+        return current == null ? Optional.empty() : Optional.of(current.byCategory().getOrDefault(categoryId, 0L));
+    }
+
+    private record Snapshot(Map<Long, Long> byCategory, long total) {
+    }
+}
@@ -0,0 +1,83 @@
+package com.vallhalatech.profile_service.service.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.vallhalatech.profile_service.service.events.CategoryChangedEvent;
+import com.vallhalatech.profile_service.service.events.ProductChangedEvent;
+import com.vallhalatech.profile_service.web.dtos.category.response.ProductResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Caché de lectura de {@link ProductResponse} por id (W-TinyLFU de Caffeine).
+ * Las entradas se invalidan tras el commit de cada escritura del producto; como la carga
+ * y la invalidación de una misma clave se serializan, una lectura nunca deja un valor
+ * anterior al commit en la caché. Cada respuesta incluye su categoría, así que modificar una
+ * categoría vacía la caché entera (es una operación poco frecuente).
+ */
+@Component
+public class ProductResponseCache {
+
+    private final Cache<Long, ProductResponse> cache;
+
+    @Autowired
+    public ProductResponseCache(MeterRegistry meterRegistry,
+                                @Value("${products.cache.maximum-size:10000}") long maximumSize,
+                                @Value("${products.cache.ttl-seconds:300}") long ttlSeconds) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+        // Expone cache.gets{result=hit|miss}, cache.evictions, cache.size en /actuator/metrics
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "products");
+    }
+
+    /**
+     * Devuelve el producto en caché o lo carga; si el cargador devuelve null no se guarda nada.
+     */
+    public ProductResponse get(Long id, Function<Long, ProductResponse> loader) {
+        return cache.get(id, loader);
+    }
+
+    public ProductResponse getIfPresent(Long id) {
+        return cache.getIfPresent(id);
+    }
+
+    /**
+     * Devuelve solo las entradas presentes, sin cargar. Las consultas por lotes no rellenan la
+     * caché: un put fuera de la carga atómica podría dejar un valor anterior a una invalidación.
+     */
+    public Map<Long, ProductResponse> getAllPresent(Collection<Long> ids) {
+        return cache.getAllPresent(ids);
+    }
+
+    public void invalidate(Long id) {
+        cache.invalidate(id);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        // Una importación masiva solo crea ids nuevos, que no pueden estar en caché
+        if (event.productId() != null) {
+            invalidate(event.productId());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCategoryChanged(CategoryChangedEvent event) {
+        // Solo una modificación puede afectar a productos: no se borra una categoría con productos
+        if (event.type() == CategoryChangedEvent.ChangeType.UPDATED) {
+            cache.invalidateAll();
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.vallhalatech.profile_service.service.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.vallhalatech.profile_service.service.events.CategoryChangedEvent;
+import com.vallhalatech.profile_service.service.events.ProductChangedEvent;
+import com.vallhalatech.profile_service.web.dtos.product.request.ProductSearchFilter;
+import com.vallhalatech.profile_service.web.dtos.product.response.SearchFacets;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.function.Supplier;
+
+/**
+ * Caché de facetas por búsqueda (filtros y ancho de tramo).
+ * El agregado recorre todas las filas que cumplen el filtro, así que las búsquedas repetidas
+ * lo reutilizan durante unos segundos. Altas, bajas y cambios de producto o categoría vacían
+ * la caché; los cambios de stock solo envejecen el recuento "en stock" hasta que expira.
+ */
+@Component
+public class SearchFacetCache {
+
+    private final Cache<Key, SearchFacets> cache;
+
+    @Autowired
+    public SearchFacetCache(MeterRegistry meterRegistry,
+                            @Value("${products.facets.cache.maximum-size:1000}") long maximumSize,
+                            @Value("${products.facets.cache.ttl-seconds:30}") long ttlSeconds) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "products.facets");
+    }
+
+    public SearchFacets get(ProductSearchFilter filter, BigDecimal priceBucketWidth, Supplier<SearchFacets> loader) {
+        // stripTrailingZeros: 50 y 50.00 son la misma clave
+        return cache.get(new Key(filter, priceBucketWidth.stripTrailingZeros()), key -> loader.get());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        if (event.type() != ProductChangedEvent.ChangeType.STOCK_CHANGED) {
+            cache.invalidateAll();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCategoryChanged(CategoryChangedEvent event) {
+        cache.invalidateAll();
+    }
+
+    private record Key(ProductSearchFilter filter, BigDecimal priceBucketWidth) {
+    }
+}
@@ -0,0 +1,45 @@
+package com.vallhalatech.profile_service.service.cache;
+
+import com.vallhalatech.profile_service.persistence.entities.Product;
+import com.vallhalatech.profile_service.service.events.ProductChangedEvent;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Mantiene la caché de segundo nivel de Hibernate coherente con las escrituras que no pasan
+ * por Hibernate (lotes JDBC de stock e importación) y con las reservas de stock, cuyo UPDATE
+ * nativo no invalida la región. Las escrituras JPA y las consultas {@code @Modifying} ya
+ * invalidan sus regiones por sí solas.
+ *
+ * <p>Se ejecuta antes que el resto de suscriptores para que {@link ProductResponseCache}
+ * no recargue desde una entrada de segundo nivel obsoleta.</p>
+ */
+@Component
+public class SecondLevelCacheEvictor {
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    public SecondLevelCacheEvictor(EntityManagerFactory entityManagerFactory) {
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        switch (event.type()) {
+            // El stock se escribe con JdbcTemplate o con un UPDATE nativo que no toca la región
+            case STOCK_CHANGED -> entityManagerFactory.getCache().evict(Product.class, event.productId());
+            // Filas nuevas insertadas por JDBC: los resultados de consulta cacheados ya no son completos
+            case BULK_IMPORTED -> entityManagerFactory.unwrap(SessionFactory.class).getCache().evictDefaultQueryRegion();
+            default -> {
+                // CREATED, UPDATED y DELETED pasan por Hibernate
+            }
+        }
+    }
+}
@@ -0,0 +1,269 @@
+package com.vallhalatech.profile_service.service.cache;
+
+import com.vallhalatech.profile_service.persistence.projections.ProductSkuView;
+import com.vallhalatech.profile_service.persistence.repositories.IProductRepository;
+import com.vallhalatech.profile_service.persistence.routing.RoutingContext;
+import com.vallhalatech.profile_service.service.events.ProductChangedEvent;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * Mapa SKU -> id en memoria para las búsquedas por SKU.
+ * Se carga al arrancar y se mantiene con los eventos de producto publicados tras cada commit;
+ * el mapa inverso id -> SKU permite retirar la entrada cuando el evento solo trae el id
+ * (borrado) o cuando una actualización cambia el SKU. Las lecturas no toman ningún lock.
+ *
+ * <p>Los cambios hechos por otras instancias solo llegan con la siguiente recarga, así que una
+ * entrada puede estar obsoleta: quien la use debe comprobarla contra el producto leído o contra
+ * la base de datos.</p>
+ *
+ * <p>Las recargas se ejecutan de una en una, igual que las reconstrucciones del índice de búsqueda.</p>
+ */
+@Component
+@Slf4j
+public class SkuDirectory {
+
+    private final IProductRepository productRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final boolean enabled;
+    // Solo serializa a los escritores
+    private final ReentrantLock lock = new ReentrantLock();
+    // Se mantiene durante toda la recarga: nunca hay dos a la vez
+    private final ReentrantLock reloadLock = new ReentrantLock();
+    private final ExecutorService reloadExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "sku-directory-reload");
+        thread.setDaemon(true);
+        return thread;
+    });
+    // Hay una recarga encolada que aún no ha empezado
+    private final AtomicBoolean reloadQueued = new AtomicBoolean();
+
+    private volatile Map<String, Long> idsBySku = new ConcurrentHashMap<>();
+    private volatile Map<Long, String> skusById = new ConcurrentHashMap<>();
+    // Buffer de la recarga en curso: los cambios recibidos se reaplican sobre los mapas nuevos
+    private List<ProductChangedEvent> pendingChanges;
+    private volatile boolean ready;
+    // Se incrementa con cada cambio aplicado; remember() lo usa para descartar lecturas anteriores
+    private volatile long generation;
+
+    @Autowired
+    public SkuDirectory(IProductRepository productRepository,
+                        PlatformTransactionManager transactionManager,
+                        @Value("${products.sku.index.enabled:true}") boolean enabled) {
+        this.productRepository = productRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.enabled = enabled;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        if (enabled) {
+            reload();
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public int size() {
+        return idsBySku.size();
+    }
+
+    /**
+     * Recarga el directorio desde la base de datos. Si hay otra recarga en curso espera a que termine.
+     */
+    public void reload() {
+        reloadLock.lock();
+        try {
+            doReload();
+        } finally {
+            reloadLock.unlock();
+        }
+    }
+
+    /**
+     * Pide una recarga en segundo plano sin bloquear al llamante; las peticiones que llegan con una
+     * ya encolada se resuelven con ella.
+     */
+    public void requestReload() {
+        if (reloadQueued.compareAndSet(false, true)) {
+            reloadExecutor.execute(() -> {
+                reloadQueued.set(false);
+                reload();
+            });
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        reloadExecutor.shutdownNow();
+    }
+
+    private void doReload() {
+        List<ProductChangedEvent> buffer = new ArrayList<>();
+        lock.lock();
+        try {
+            pendingChanges = buffer;
+        } finally {
+            lock.unlock();
+        }
+
+        try {
+            long start = System.nanoTime();
+            Map<String, Long> loadedIds = new ConcurrentHashMap<>();
+            Map<Long, String> loadedSkus = new ConcurrentHashMap<>();
+            // Desde la primaria: tras una importación una réplica retrasada aún no tendría las filas nuevas
+            RoutingContext.runOnPrimary(() -> readOnlyTransaction.executeWithoutResult(status -> {
+                try (Stream<ProductSkuView> rows = productRepository.streamSkuEntries()) {
+                    rows.forEach(row -> put(loadedIds, loadedSkus, row.getSku(), row.getId()));
+                }
+            }));
+
+            lock.lock();
+            try {
+                buffer.forEach(change -> apply(loadedIds, loadedSkus, change));
+                idsBySku = loadedIds;
+                skusById = loadedSkus;
+                generation++;
+                ready = true;
+            } finally {
+                pendingChanges = null;
+                lock.unlock();
+            }
+            log.info("Directorio de SKU cargado: {} productos en {} ms",
+                    loadedIds.size(), (System.nanoTime() - start) / 1_000_000);
+        } catch (Exception e) {
+            lock.lock();
+            try {
+                pendingChanges = null;
+            } finally {
+                lock.unlock();
+            }
+            log.error("No se pudo cargar el directorio de SKU", e);
+        }
+    }
+
+    /**
+     * Id del producto con ese SKU, o null si no está en el directorio.
+     */
+    public Long findId(String sku) {
+        return ready ? idsBySku.get(sku) : null;
+    }
+
+    /**
+     * Generación actual del directorio. Se toma antes de leer la base de datos y se pasa a
+     * {@link #remember(String, Long, long)}.
+     */
+    public long generation() {
+        return generation;
+    }
+
+    /**
+     * Registra una asociación leída de la base de datos tras un fallo del directorio
+     * (p. ej. un producto creado por otra instancia). Si desde {@code observedGeneration} se ha
+     * aplicado algún cambio (un borrado concurrente, por ejemplo) la lectura puede ser anterior
+     * y no se guarda: la siguiente búsqueda volverá a la base de datos.
+     */
+    public void remember(String sku, Long id, long observedGeneration) {
+        if (!ready || sku == null || id == null) {
+            return;
+        }
+        lock.lock();
+        try {
+            if (generation == observedGeneration) {
+                put(idsBySku, skusById, sku, id);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Retira una asociación que resultó obsoleta (el producto ya no existe o cambió de SKU).
+     */
+    public void evict(String sku, Long id) {
+        lock.lock();
+        try {
+            if (idsBySku.remove(sku, id)) {
+                skusById.remove(id, sku);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        if (!enabled || event.type() == ProductChangedEvent.ChangeType.STOCK_CHANGED) {
+            return;
+        }
+        if (event.type() == ProductChangedEvent.ChangeType.BULK_IMPORTED) {
+            // Sin ids individuales: se recarga en segundo plano sin bloquear la petición
+            requestReload();
+            return;
+        }
+        lock.lock();
+        try {
+            apply(idsBySku, skusById, event);
+            generation++;
+            if (pendingChanges != null) {
+                pendingChanges.add(event);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static void apply(Map<String, Long> ids, Map<Long, String> skus, ProductChangedEvent event) {
+        switch (event.type()) {
+            case CREATED, UPDATED -> put(ids, skus, event.sku(), event.productId());
+            case DELETED -> {
+                String sku = skus.remove(event.productId());
+                if (sku != null) {
+                    ids.remove(sku, event.productId());
+                }
+            }
+            case STOCK_CHANGED, BULK_IMPORTED -> {
+                // El stock no afecta al SKU; las importaciones se resuelven con reload()
+            }
+        }
+    }
+
+    private static void put(Map<String, Long> ids, Map<Long, String> skus, String sku, Long id) {
+        if (id == null) {
+            return;
+        }
+        // Si el producto cambió de SKU (o lo perdió) se retira la entrada anterior
+        String previous = sku != null ? skus.put(id, sku) : skus.remove(id);
+        if (previous != null && !previous.equals(sku)) {
+            ids.remove(previous, id);
+        }
+        if (sku != null) {
+            Long displaced = ids.put(sku, id);
+            // Un SKU reasignado a otro producto deja huérfana la entrada inversa del anterior
+            if (displaced != null && !displaced.equals(id)) {
+                skus.remove(displaced, sku);
+            }
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.vallhalatech.profile_service.service.events;
+
+/**
+ * Evento publicado por el servicio de categorías tras cada mutación.
+ */
+public record CategoryChangedEvent(ChangeType type, Long categoryId) {
+
+    public enum ChangeType {
+        CREATED,
+        UPDATED,
+        DELETED
+    }
+
+    public static CategoryChangedEvent created(Long categoryId) {
+        return new CategoryChangedEvent(ChangeType.CREATED, categoryId);
+    }
+
+    public static CategoryChangedEvent updated(Long categoryId) {
+        return new CategoryChangedEvent(ChangeType.UPDATED, categoryId);
+    }
+
+    public static CategoryChangedEvent deleted(Long categoryId) {
+        return new CategoryChangedEvent(ChangeType.DELETED, categoryId);
+    }
+}
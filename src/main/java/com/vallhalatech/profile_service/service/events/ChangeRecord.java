@@ -0,0 +1,18 @@
+package com.vallhalatech.profile_service.service.events;
+
+import java.time.Instant;
+
+/**
+ * Cambio confirmado tal como se difunde por el flujo de eventos.
+ *
+ * @param id       número de secuencia creciente; es el id del evento SSE (Last-Event-ID)
+ * @param entity   "product" o "category"
+ * @param type     tipo de cambio en minúsculas (created, updated, stock_changed, deleted, bulk_imported)
+ * @param entityId id afectado; null en altas masivas
+ */
+public record ChangeRecord(long id, String entity, String type, Long entityId, Instant at) {
+
+    public String eventName() {
+        return entity + "." + type;
+    }
+}
@@ -0,0 +1,254 @@
+package com.vallhalatech.profile_service.service.events;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bus de cambios en proceso: recibe los eventos de producto y categoría tras el commit,
+ * los numera y los guarda en un anillo acotado con los últimos cambios.
+ *
+ * <p>Cada suscriptor tiene una cola acotada y un hilo virtual que le envía los eventos.
+ * Si un suscriptor lento desborda su cola deja de recibir y, cuando su hilo la vacía, se
+ * pone al día leyendo del anillo. Solo si el anillo ya no contiene lo que le falta se le
+ * envía una señal de retraso para que resincronice. La misma reposición desde el anillo
+ * atiende las reconexiones con Last-Event-ID.</p>
+ */
+@Component
+@Slf4j
+public class ChangeStream {
+
+    /**
+     * Destino de un suscriptor (p. ej. una conexión SSE). Un IOException cierra la suscripción.
+     */
+    public interface Sink {
+        void send(ChangeRecord record) throws IOException;
+
+        /**
+         * Se perdieron los eventos entre lastDeliveredId y resumeFromId (exclusivos).
+         */
+        void lag(long lastDeliveredId, long resumeFromId) throws IOException;
+
+        void heartbeat() throws IOException;
+
+        void close();
+    }
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final ChangeRecord[] ring;
+    private final Set<Subscription> subscriptions = ConcurrentHashMap.newKeySet();
+    private final int subscriberBuffer;
+    private final int maxSubscribers;
+    private final long heartbeatMillis;
+    private final Counter droppedCounter;
+    // Los ids parten de la hora de arranque: siguen creciendo tras un reinicio y un
+    // Last-Event-ID de la ejecución anterior se detecta como hueco
+    private final long firstId = System.currentTimeMillis() * 1000;
+    private long lastId = firstId - 1;
+
+    @Autowired
+    public ChangeStream(MeterRegistry meterRegistry,
+                        @Value("${products.events.buffer-size:4096}") int bufferSize,
+                        @Value("${products.events.subscriber-buffer:256}") int subscriberBuffer,
+                        @Value("${products.events.max-subscribers:1000}") int maxSubscribers,
+                        @Value("${products.events.heartbeat-ms:15000}") long heartbeatMillis) {
+        this.ring = new ChangeRecord[bufferSize];
+        this.subscriberBuffer = subscriberBuffer;
+        this.maxSubscribers = maxSubscribers;
+        this.heartbeatMillis = heartbeatMillis;
+        this.droppedCounter = Counter.builder("products.events.dropped")
+                .description("Eventos que no cupieron en la cola de un suscriptor")
+                .register(meterRegistry);
+        Gauge.builder("products.events.subscribers", subscriptions, Set::size)
+                .description("Suscriptores conectados al flujo de cambios")
+                .register(meterRegistry);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        publish("product", event.type().name(), event.productId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCategoryChanged(CategoryChangedEvent event) {
+        publish("category", event.type().name(), event.categoryId());
+    }
+
+    /**
+     * Registra un suscriptor. Con lastEventId se reenvían primero los cambios posteriores
+     * que sigan en el anillo; sin él solo recibe los cambios nuevos.
+     *
+     * @return la suscripción, o null si se alcanzó el máximo de suscriptores
+     */
+    public Subscription subscribe(Long lastEventId, Sink sink) {
+        if (subscriptions.size() >= maxSubscribers) {
+            return null;
+        }
+        Subscription subscription;
+        lock.lock();
+        try {
+            // Con Last-Event-ID se empieza reponiendo desde el anillo, igual que tras un desbordamiento
+            subscription = new Subscription(sink, lastEventId != null ? Math.min(lastEventId, lastId) : lastId,
+                    lastEventId != null);
+            subscriptions.add(subscription);
+        } finally {
+            lock.unlock();
+        }
+        Thread.ofVirtual().name("change-stream-subscriber").start(subscription::run);
+        return subscription;
+    }
+
+    public int subscriberCount() {
+        return subscriptions.size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        subscriptions.forEach(Subscription::close);
+    }
+
+    void publish(String entity, String type, Long entityId) {
+        lock.lock();
+        try {
+            ChangeRecord record = new ChangeRecord(++lastId, entity, type.toLowerCase(Locale.ROOT), entityId,
+                    Instant.now());
+            ring[(int) (record.id() % ring.length)] = record;
+            // offer no bloquea: un suscriptor lento nunca frena al que publica
+            for (Subscription subscription : subscriptions) {
+                subscription.offer(record);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Id más antiguo que sigue en el anillo (se llama con el lock tomado)
+    private long oldestId() {
+        return Math.max(firstId, lastId - ring.length + 1);
+    }
+
+    // Cambios posteriores a afterId todavía presentes en el anillo (se llama con el lock tomado)
+    private List<ChangeRecord> replayAfter(long afterId) {
+        List<ChangeRecord> records = new ArrayList<>();
+        for (long id = Math.max(afterId + 1, oldestId()); id <= lastId; id++) {
+            records.add(ring[(int) (id % ring.length)]);
+        }
+        return records;
+    }
+
+    public final class Subscription {
+
+        private final Sink sink;
+        private final BlockingQueue<ChangeRecord> queue;
+        private volatile boolean lagging;
+        private final AtomicBoolean closed = new AtomicBoolean();
+        private volatile Thread worker;
+        private long lastSentId;
+
+        private Subscription(Sink sink, long lastSentId, boolean lagging) {
+            this.sink = sink;
+            this.queue = new ArrayBlockingQueue<>(subscriberBuffer);
+            this.lastSentId = lastSentId;
+            this.lagging = lagging;
+        }
+
+        public void close() {
+            if (!closed.compareAndSet(false, true)) {
+                return;
+            }
+            subscriptions.remove(this);
+            Thread current = worker;
+            if (current != null && current != Thread.currentThread()) {
+                current.interrupt();
+            }
+            sink.close();
+        }
+
+        // Se llama con el lock del bus tomado
+        private void offer(ChangeRecord record) {
+            if (lagging) {
+                return;
+            }
+            if (!queue.offer(record)) {
+                // Cola llena: se descarta y el hilo del suscriptor se repondrá desde el anillo
+                lagging = true;
+                droppedCounter.increment();
+            }
+        }
+
+        private void run() {
+            worker = Thread.currentThread();
+            try {
+                while (!closed.get()) {
+                    // Tras un desbordamiento se envía primero lo encolado y después se repone desde el anillo
+                    if (lagging && queue.isEmpty()) {
+                        catchUp();
+                        continue;
+                    }
+                    ChangeRecord record = queue.poll(heartbeatMillis, TimeUnit.MILLISECONDS);
+                    if (record != null) {
+                        deliver(record);
+                    } else if (!lagging) {
+                        sink.heartbeat();
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (IOException | RuntimeException e) {
+                log.debug("Suscriptor del flujo de cambios desconectado: {}", e.getMessage());
+            } finally {
+                close();
+            }
+        }
+
+        private void deliver(ChangeRecord record) throws IOException {
+            if (record.id() <= lastSentId) {
+                return;
+            }
+            sink.send(record);
+            lastSentId = record.id();
+        }
+
+        private void catchUp() throws IOException {
+            List<ChangeRecord> missing;
+            long oldest;
+            lock.lock();
+            try {
+                missing = replayAfter(lastSentId);
+                oldest = oldestId();
+                queue.clear();
+                lagging = false;
+            } finally {
+                lock.unlock();
+            }
+            if (lastSentId + 1 < oldest) {
+                // El anillo ya no tiene parte de lo perdido: el cliente debe resincronizar
+                sink.lag(lastSentId, oldest);
+                lastSentId = oldest - 1;
+            }
+            for (ChangeRecord record : missing) {
+                sink.send(record);
+                lastSentId = record.id();
+            }
+        }
+    }
+}
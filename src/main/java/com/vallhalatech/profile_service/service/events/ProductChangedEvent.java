@@ -0,0 +1,44 @@
+package com.vallhalatech.profile_service.service.events;
+
+import com.vallhalatech.profile_service.persistence.entities.Product;
+
+/**
+ * Evento publicado por el servicio de productos tras cada mutación.
+ * Los suscriptores lo escuchan después del commit para mantener sus estructuras en memoria.
+ */
+public record ProductChangedEvent(ChangeType type, Long productId, String name, String sku, Long categoryId) {
+
+    public enum ChangeType {
+        CREATED,
+        UPDATED,
+        STOCK_CHANGED,
+        DELETED,
+        // Alta masiva sin ids individuales: los suscriptores recargan su estado completo
+        BULK_IMPORTED
+    }
+
+    public static ProductChangedEvent created(Product product) {
+        return of(ChangeType.CREATED, product);
+    }
+
+    public static ProductChangedEvent updated(Product product) {
+        return of(ChangeType.UPDATED, product);
+    }
+
+    public static ProductChangedEvent stockChanged(Long productId) {
+        return new ProductChangedEvent(ChangeType.STOCK_CHANGED, productId, null, null, null);
+    }
+
+    public static ProductChangedEvent deleted(Long productId) {
+        return new ProductChangedEvent(ChangeType.DELETED, productId, null, null, null);
+    }
+
+    public static ProductChangedEvent bulkImported() {
+        return new ProductChangedEvent(ChangeType.BULK_IMPORTED, null, null, null, null);
+    }
+
+    private static ProductChangedEvent of(ChangeType type, Product product) {
+        Long categoryId = product.getCategory() != null ? product.getCategory().getId() : null;
+        return new ProductChangedEvent(type, product.getId(), product.getName(), product.getSku(), categoryId);
+    }
+}
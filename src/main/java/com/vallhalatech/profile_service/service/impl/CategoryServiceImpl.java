@@ -1,8 +1,9 @@
 package com.vallhalatech.profile_service.service.impl;
 
 import com.vallhalatech.profile_service.persistence.repositories.ICategoryRepository;
-import com.vallhalatech.profile_service.persistence.repositories.IProductRepository;
 import com.vallhalatech.profile_service.service.ICategoryService;
+import com.vallhalatech.profile_service.service.cache.CategoryDictionary;
+import com.vallhalatech.profile_service.service.events.CategoryChangedEvent;
 
 import com.vallhalatech.profile_service.persistence.entities.Category;
 import com.vallhalatech.profile_service.utils.mappers.ICategoryMapper;
@@ -10,28 +11,31 @@ import com.vallhalatech.profile_service.web.dtos.category.request.CategoryReques
 import com.vallhalatech.profile_service.web.dtos.category.response.CategoryResponse;
 import com.vallhalatech.profile_service.web.dtos.response.BaseResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
 @Service
 public class CategoryServiceImpl implements ICategoryService {
 
     private final ICategoryRepository categoryRepository;
-    private final IProductRepository productRepository;
     private final ICategoryMapper categoryMapper;
+    private final CategoryDictionary categoryDictionary;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Autowired
     public CategoryServiceImpl(ICategoryRepository categoryRepository,
-                               IProductRepository productRepository,
-                               ICategoryMapper categoryMapper) {
+                               ICategoryMapper categoryMapper,
+                               CategoryDictionary categoryDictionary,
+                               ApplicationEventPublisher eventPublisher) {
         this.categoryRepository = categoryRepository;
-        this.productRepository = productRepository;
         this.categoryMapper = categoryMapper;
+        this.categoryDictionary = categoryDictionary;
+        this.eventPublisher = eventPublisher;
     }
 
     @Override
@@ -39,7 +43,7 @@ public class CategoryServiceImpl implements ICategoryService {
     public BaseResponse addCategory(CategoryRequest categoryRequest) {
         try {
             // Verificar si ya existe una categoría con el mismo nombre
-            if (categoryRepository.existsByName(categoryRequest.getName())) {
+            if (categoryDictionary.existsByName(categoryRequest.getName())) {
                 return BaseResponse.builder()
                         .data(null)
                         .message("Ya existe una categoría con ese nombre")
@@ -53,6 +57,7 @@ public class CategoryServiceImpl implements ICategoryService {
 
             // Guardar categoría
             Category savedCategory = categoryRepository.save(category);
+            eventPublisher.publishEvent(CategoryChangedEvent.created(savedCategory.getId()));
 
             // Convertir entidad a DTO respuesta
             CategoryResponse response = categoryMapper.toResponse(savedCategory);
@@ -76,8 +81,8 @@ public class CategoryServiceImpl implements ICategoryService {
     @Override
     public BaseResponse getCategoryById(Long id) {
         try {
-            Optional<Category> categoryOpt = categoryRepository.findById(id);
-            if (categoryOpt.isEmpty()) {
+            Optional<CategoryResponse> responseOpt = categoryDictionary.getResponse(id);
+            if (responseOpt.isEmpty()) {
                 return BaseResponse.builder()
                         .data(null)
                         .message("Categoría no encontrada")
@@ -86,7 +91,7 @@ public class CategoryServiceImpl implements ICategoryService {
                         .build();
             }
 
-            CategoryResponse response = categoryMapper.toResponse(categoryOpt.get());
+            CategoryResponse response = responseOpt.get();
 
             return BaseResponse.builder()
                     .data(response)
@@ -107,10 +112,8 @@ public class CategoryServiceImpl implements ICategoryService {
     @Override
     public BaseResponse getAllCategories() {
         try {
-            List<Category> categories = categoryRepository.findAll();
-            List<CategoryResponse> categoryResponses = categories.stream()
-                    .map(categoryMapper::toResponse)
-                    .collect(Collectors.toList());
+            // Servido desde la instantánea en memoria
+            List<CategoryResponse> categoryResponses = categoryDictionary.getAllResponses();
 
             return BaseResponse.builder()
                     .data(categoryResponses)
@@ -132,34 +135,35 @@ public class CategoryServiceImpl implements ICategoryService {
     @Transactional
     public BaseResponse updateCategory(Long id, CategoryRequest categoryRequest) {
         try {
-            // Verificar que la categoría exista
-            Optional<Category> categoryOpt = categoryRepository.findById(id);
-            if (categoryOpt.isEmpty()) {
+            // Verificar si ya existe otra categoría con el mismo nombre
+            Optional<Category> existingCategory = categoryDictionary.findByName(categoryRequest.getName());
+            if (existingCategory.isPresent() && !existingCategory.get().getId().equals(id)) {
                 return BaseResponse.builder()
                         .data(null)
-                        .message("Categoría no encontrada")
+                        .message("Ya existe otra categoría con ese nombre")
                         .success(false)
-                        .httpStatus(HttpStatus.NOT_FOUND)
+                        .httpStatus(HttpStatus.BAD_REQUEST)
                         .build();
             }
 
-            // Verificar si ya existe otra categoría con el mismo nombre
-            Optional<Category> existingCategory = categoryRepository.findByName(categoryRequest.getName());
-            if (existingCategory.isPresent() && !existingCategory.get().getId().equals(id)) {
+            // Un único UPDATE: si no afecta a ninguna fila la categoría no existe
+            int updated = categoryRepository.updateDetails(id, categoryRequest.getName(),
+                    categoryRequest.getDescription());
+            if (updated == 0) {
                 return BaseResponse.builder()
                         .data(null)
-                        .message("Ya existe otra categoría con ese nombre")
+                        .message("Categoría no encontrada")
                         .success(false)
-                        .httpStatus(HttpStatus.BAD_REQUEST)
+                        .httpStatus(HttpStatus.NOT_FOUND)
                         .build();
             }
+            eventPublisher.publishEvent(CategoryChangedEvent.updated(id));
 
-            // Actualizar la categoría
-            Category category = categoryOpt.get();
-            category.setName(categoryRequest.getName());
-            category.setDescription(categoryRequest.getDescription());
-
-            Category updatedCategory = categoryRepository.save(category);
+            // La categoría solo tiene los campos escritos: la respuesta se arma sin volver a leerla
+            Category updatedCategory = new Category();
+            updatedCategory.setId(id);
+            updatedCategory.setName(categoryRequest.getName());
+            updatedCategory.setDescription(categoryRequest.getDescription());
             CategoryResponse response = categoryMapper.toResponse(updatedCategory);
 
             return BaseResponse.builder()
@@ -182,20 +186,18 @@ public class CategoryServiceImpl implements ICategoryService {
     @Transactional
     public BaseResponse deleteCategory(Long id) {
         try {
-            // Verificar que la categoría exista
-            boolean exists = categoryRepository.existsById(id);
-            if (!exists) {
-                return BaseResponse.builder()
-                        .data(null)
-                        .message("Categoría no encontrada")
-                        .success(false)
-                        .httpStatus(HttpStatus.NOT_FOUND)
-                        .build();
-            }
-
-            // Verificar si hay productos asociados a esta categoría
-            boolean hasProducts = productRepository.existsByCategoryId(id);
-            if (hasProducts) {
+            // Un único DELETE con la comprobación de productos asociados en el propio WHERE
+            if (categoryRepository.deleteIfUnused(id) == 0) {
+                // Sin filas afectadas: se pregunta a la base de datos en la misma transacción, porque la
+                // instantánea en memoria se actualiza tras el commit y puede no conocer aún la categoría
+                if (!categoryRepository.existsById(id)) {
+                    return BaseResponse.builder()
+                            .data(null)
+                            .message("Categoría no encontrada")
+                            .success(false)
+                            .httpStatus(HttpStatus.NOT_FOUND)
+                            .build();
+                }
                 return BaseResponse.builder()
                         .data(null)
                         .message("No se puede eliminar la categoría porque tiene productos asociados")
@@ -203,9 +205,7 @@ public class CategoryServiceImpl implements ICategoryService {
                         .httpStatus(HttpStatus.BAD_REQUEST)
                         .build();
             }
-
-            // Eliminar categoría
-            categoryRepository.deleteById(id);
+            eventPublisher.publishEvent(CategoryChangedEvent.deleted(id));
 
             return BaseResponse.builder()
                     .data(null)
@@ -0,0 +1,129 @@
+package com.vallhalatech.profile_service.service.impl;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.vallhalatech.profile_service.persistence.entities.Product;
+import com.vallhalatech.profile_service.service.IProductExportService;
+import com.vallhalatech.profile_service.utils.mappers.IProductMapper;
+import com.vallhalatech.profile_service.utils.transfer.CsvCodec;
+import com.vallhalatech.profile_service.utils.transfer.TransferFormat;
+import com.vallhalatech.profile_service.web.dtos.category.response.ProductResponse;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.CacheMode;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.Session;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Exportación del catálogo completo con memoria constante.
+ * Recorre los productos con un cursor de solo avance y escribe cada fila directamente
+ * en la respuesta; el contexto de persistencia se vacía periódicamente para que el heap
+ * no crezca con el tamaño del catálogo. En MySQL el cursor requiere useCursorFetch=true
+ * en la URL de conexión (o fetch-size = Integer.MIN_VALUE para streaming fila a fila).
+ */
+@Service
+@Slf4j
+public class ProductExportServiceImpl implements IProductExportService {
+
+    private static final String EXPORT_QUERY = "SELECT p FROM product p LEFT JOIN FETCH p.category ORDER BY p.id";
+
+    // Mismas columnas que acepta la importación, más las de solo lectura
+    private static final String CSV_HEADER = String.join(",", "id", "name", "description", "imageUrl", "price",
+            "categoryId", "categoryName", "stock", "sku", "createdAt", "updatedAt", "isActive");
+
+    private final EntityManager entityManager;
+    private final IProductMapper productMapper;
+    private final ObjectWriter jsonWriter;
+    private final TransactionTemplate readOnlyTransaction;
+    private final int fetchSize;
+
+    @Autowired
+    public ProductExportServiceImpl(EntityManager entityManager,
+                                    IProductMapper productMapper,
+                                    ObjectMapper objectMapper,
+                                    PlatformTransactionManager transactionManager,
+                                    @Value("${products.export.fetch-size:1000}") int fetchSize) {
+        this.entityManager = entityManager;
+        this.productMapper = productMapper;
+        this.jsonWriter = objectMapper.writerFor(ProductResponse.class);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.fetchSize = fetchSize;
+    }
+
+    @Override
+    public void exportProducts(TransferFormat format, OutputStream output) {
+        long start = System.nanoTime();
+        long exported = readOnlyTransaction.execute(status -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+            Session session = entityManager.unwrap(Session.class);
+            long rows = 0;
+
+            try (ScrollableResults<Product> results = session.createSelectionQuery(EXPORT_QUERY, Product.class)
+                    .setFetchSize(fetchSize)
+                    .setReadOnly(true)
+                    .setCacheMode(CacheMode.IGNORE)
+                    .scroll(ScrollMode.FORWARD_ONLY);
+                 JsonGenerator generator = jsonWriter.getFactory().createGenerator(writer)) {
+
+                // El separador de líneas lo escribe este método, no Jackson
+                generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                generator.setRootValueSeparator(null);
+                if (format == TransferFormat.CSV) {
+                    writer.write(CSV_HEADER);
+                    writer.write('\n');
+                }
+
+                while (results.next()) {
+                    ProductResponse row = productMapper.toResponse(results.get());
+                    if (format == TransferFormat.CSV) {
+                        writer.write(toCsv(row));
+                    } else {
+                        jsonWriter.writeValue(generator, row);
+                        generator.flush();
+                    }
+                    writer.write('\n');
+
+                    // Se sueltan las entidades ya escritas y se vacía el buffer hacia el cliente
+                    if (++rows % fetchSize == 0) {
+                        session.clear();
+                        writer.flush();
+                    }
+                }
+                writer.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return rows;
+        });
+        log.info("Exportación {} completada: {} productos en {} ms",
+                format, exported, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private static String toCsv(ProductResponse row) {
+        Long categoryId = row.getCategory() != null ? row.getCategory().getId() : null;
+        String categoryName = row.getCategory() != null ? row.getCategory().getName() : null;
+        return Stream.of(row.getId(), row.getName(), row.getDescription(), row.getImageUrl(), row.getPrice(),
+                        categoryId, categoryName, row.getStock(), row.getSku(), row.getCreatedAt(),
+                        row.getUpdatedAt(), row.getIsActive())
+                .map(CsvCodec::escape)
+                .collect(Collectors.joining(","));
+    }
+}
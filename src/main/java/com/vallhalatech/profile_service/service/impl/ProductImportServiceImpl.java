@@ -0,0 +1,261 @@
+package com.vallhalatech.profile_service.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vallhalatech.profile_service.persistence.jdbc.ProductJdbcRepository;
+import com.vallhalatech.profile_service.service.IProductImportService;
+import com.vallhalatech.profile_service.service.cache.CategoryDictionary;
+import com.vallhalatech.profile_service.service.events.ProductChangedEvent;
+import com.vallhalatech.profile_service.utils.transfer.CsvCodec;
+import com.vallhalatech.profile_service.utils.transfer.TransferFormat;
+import com.vallhalatech.profile_service.web.dtos.category.response.CategoryResponse;
+import com.vallhalatech.profile_service.web.dtos.product.request.ProductRequest;
+import com.vallhalatech.profile_service.web.dtos.product.response.ImportReportResponse;
+import com.vallhalatech.profile_service.web.dtos.product.response.ImportReportResponse.RowError;
+import com.vallhalatech.profile_service.web.dtos.response.BaseResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+@Service
+@Slf4j
+public class ProductImportServiceImpl implements IProductImportService {
+
+    private static final List<String> CSV_COLUMNS =
+            List.of("name", "description", "imageUrl", "price", "categoryId", "stock", "sku");
+
+    // Tope de un registro CSV que continúa en varias líneas: unas comillas sin cerrar no deben
+    // llevarse el resto del fichero a memoria
+    private static final int MAX_CSV_RECORD_CHARS = 64 * 1024;
+
+    private final ProductJdbcRepository productJdbcRepository;
+    private final CategoryDictionary categoryDictionary;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int batchSize;
+    private final int maxReportedErrors;
+
+    @Autowired
+    public ProductImportServiceImpl(ProductJdbcRepository productJdbcRepository,
+                                    CategoryDictionary categoryDictionary,
+                                    ObjectMapper objectMapper,
+                                    PlatformTransactionManager transactionManager,
+                                    ApplicationEventPublisher eventPublisher,
+                                    @Value("${products.import.batch-size:1000}") int batchSize,
+                                    @Value("${products.import.max-reported-errors:1000}") int maxReportedErrors) {
+        this.productJdbcRepository = productJdbcRepository;
+        this.categoryDictionary = categoryDictionary;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
+        this.batchSize = batchSize;
+        this.maxReportedErrors = maxReportedErrors;
+    }
+
+    @Override
+    public BaseResponse importProducts(InputStream input, TransferFormat format) {
+        long start = System.nanoTime();
+        ImportState state = new ImportState();
+
+        // Las categorías se validan contra un conjunto precargado, sin consultas por fila
+        Set<Long> categoryIds = categoryDictionary.getAllResponses().stream()
+                .map(CategoryResponse::getId)
+                .collect(Collectors.toSet());
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            Map<String, Integer> csvHeader = null;
+            List<PendingRow> batch = new ArrayList<>(batchSize);
+            String line;
+            long lineNumber = 0;
+
+            // El cuerpo se procesa registro a registro; nunca se mantiene completo en memoria
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                // Los errores se informan con la línea en la que empieza el registro
+                long recordLine = lineNumber;
+                if (format == TransferFormat.CSV && CsvCodec.hasOpenQuote(line)) {
+                    StringBuilder record = new StringBuilder(line);
+                    String next;
+                    while (CsvCodec.hasOpenQuote(record) && record.length() <= MAX_CSV_RECORD_CHARS
+                            && (next = reader.readLine()) != null) {
+                        lineNumber++;
+                        record.append('\n').append(next);
+                    }
+                    line = record.toString();
+                }
+                if (line.isBlank()) {
+                    continue;
+                }
+                if (format == TransferFormat.CSV && csvHeader == null) {
+                    csvHeader = parseHeader(line);
+                    continue;
+                }
+
+                state.rowsRead++;
+                try {
+                    ProductRequest row = format == TransferFormat.CSV
+                            ? parseCsv(line, csvHeader)
+                            : objectMapper.readValue(line, ProductRequest.class);
+                    String error = ProductRequestRules.validate(row, categoryIds::contains);
+                    if (error != null) {
+                        state.fail(recordLine, error);
+                        continue;
+                    }
+                    batch.add(new PendingRow(recordLine, row));
+                } catch (Exception e) {
+                    state.fail(recordLine, "Fila inválida: " + e.getMessage());
+                    continue;
+                }
+
+                if (batch.size() >= batchSize) {
+                    writeBatch(batch, state);
+                    batch.clear();
+                }
+            }
+            if (!batch.isEmpty()) {
+                writeBatch(batch, state);
+            }
+        } catch (IllegalArgumentException e) {
+            return BaseResponse.builder()
+                    .data(null)
+                    .message(e.getMessage())
+                    .success(false)
+                    .httpStatus(HttpStatus.BAD_REQUEST)
+                    .build();
+        } catch (Exception e) {
+            log.error("Importación interrumpida tras {} filas", state.rowsRead, e);
+            return BaseResponse.builder()
+                    .data(buildReport(state, start))
+                    .message("Error al importar los productos: " + e.getMessage())
+                    .success(false)
+                    .httpStatus(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .build();
+        } finally {
+            if (state.rowsImported > 0) {
+                eventPublisher.publishEvent(ProductChangedEvent.bulkImported());
+            }
+        }
+
+        ImportReportResponse report = buildReport(state, start);
+        log.info("Importación completada: {} filas importadas, {} con error, {} filas/s",
+                report.getRowsImported(), report.getRowsFailed(), report.getRowsPerSecond());
+
+        return BaseResponse.builder()
+                .data(report)
+                .message(state.rowsFailed == 0
+                        ? "Productos importados exitosamente"
+                        : "Importación completada con errores")
+                .success(true)
+                .httpStatus(HttpStatus.OK)
+                .build();
+    }
+
+    // Cada lote se confirma en su propia transacción
+    private void writeBatch(List<PendingRow> batch, ImportState state) {
+        LocalDateTime now = LocalDateTime.now();
+        List<ProductRequest> rows = batch.stream().map(PendingRow::row).collect(Collectors.toList());
+        try {
+            transactionTemplate.executeWithoutResult(status -> productJdbcRepository.insertBatch(rows, now));
+            state.rowsImported += rows.size();
+        } catch (DataAccessException batchError) {
+            // El lote falló como unidad (p. ej. SKU duplicado): se reintenta fila a fila para aislar el error
+            for (PendingRow pending : batch) {
+                try {
+                    productJdbcRepository.insert(pending.row(), now);
+                    state.rowsImported++;
+                } catch (DataAccessException rowError) {
+                    state.fail(pending.line(), "Error al insertar: " + rowError.getMostSpecificCause().getMessage());
+                }
+            }
+        }
+    }
+
+    private static Map<String, Integer> parseHeader(String line) {
+        List<String> columns = CsvCodec.parseLine(line);
+        Map<String, Integer> header = new HashMap<>();
+        for (int i = 0; i < columns.size(); i++) {
+            header.put(columns.get(i).trim(), i);
+        }
+        for (String required : CSV_COLUMNS) {
+            if (!header.containsKey(required) && !"sku".equals(required)) {
+                throw new IllegalArgumentException("Falta la columna obligatoria: " + required);
+            }
+        }
+        return header;
+    }
+
+    private static ProductRequest parseCsv(String line, Map<String, Integer> header) {
+        List<String> fields = CsvCodec.parseLine(line);
+        ProductRequest row = new ProductRequest();
+        row.setName(field(fields, header, "name"));
+        row.setDescription(field(fields, header, "description"));
+        row.setImageUrl(field(fields, header, "imageUrl"));
+        String price = field(fields, header, "price");
+        row.setPrice(price != null ? new BigDecimal(price) : null);
+        String categoryId = field(fields, header, "categoryId");
+        row.setCategoryId(categoryId != null ? Long.valueOf(categoryId) : null);
+        String stock = field(fields, header, "stock");
+        row.setStock(stock != null ? Integer.valueOf(stock) : null);
+        row.setSku(field(fields, header, "sku"));
+        return row;
+    }
+
+    private static String field(List<String> fields, Map<String, Integer> header, String column) {
+        Integer index = header.get(column);
+        if (index == null || index >= fields.size()) {
+            return null;
+        }
+        String value = fields.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    private ImportReportResponse buildReport(ImportState state, long start) {
+        long elapsedNanos = System.nanoTime() - start;
+        return ImportReportResponse.builder()
+                .rowsRead(state.rowsRead)
+                .rowsImported(state.rowsImported)
+                .rowsFailed(state.rowsFailed)
+                .elapsedMillis(TimeUnit.NANOSECONDS.toMillis(elapsedNanos))
+                .rowsPerSecond(state.rowsImported * TimeUnit.SECONDS.toNanos(1) / Math.max(elapsedNanos, 1))
+                .errors(state.errors)
+                .errorsTruncated(state.rowsFailed > state.errors.size())
+                .build();
+    }
+
+    private record PendingRow(long line, ProductRequest row) {
+    }
+
+    private class ImportState {
+        private long rowsRead;
+        private long rowsImported;
+        private long rowsFailed;
+        private final List<RowError> errors = new ArrayList<>();
+
+        private void fail(long line, String message) {
+            rowsFailed++;
+            if (errors.size() < maxReportedErrors) {
+                errors.add(new RowError(line, message));
+            }
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.vallhalatech.profile_service.service.impl;
+
+import com.vallhalatech.profile_service.web.dtos.product.request.ProductRequest;
+
+import java.util.function.LongPredicate;
+
+/**
+ * Restricciones de las columnas de la entidad Product, compartidas por la importación
+ * masiva y la modificación parcial.
+ */
+final class ProductRequestRules {
+
+    private ProductRequestRules() {
+    }
+
+    /**
+     * @return el mensaje del primer error, o null si la fila es válida
+     */
+    static String validate(ProductRequest row, LongPredicate categoryExists) {
+        if (row.getName() == null || row.getName().isBlank() || row.getName().length() > 50) {
+            return "El nombre es obligatorio y no puede exceder los 50 caracteres";
+        }
+        if (row.getDescription() == null || row.getDescription().length() > 500) {
+            return "La descripción es obligatoria y no puede exceder los 500 caracteres";
+        }
+        if (row.getImageUrl() == null || row.getImageUrl().length() > 500) {
+            return "La URL de imagen es obligatoria y no puede exceder los 500 caracteres";
+        }
+        if (row.getPrice() == null || row.getPrice().signum() < 0) {
+            return "El precio es obligatorio y no puede ser negativo";
+        }
+        if (row.getStock() == null || row.getStock() < 0) {
+            return "El stock es obligatorio y no puede ser negativo";
+        }
+        if (row.getSku() != null && row.getSku().length() > 20) {
+            return "El SKU no puede exceder los 20 caracteres";
+        }
+        if (row.getCategoryId() == null || !categoryExists.test(row.getCategoryId())) {
+            return "La categoría especificada no existe";
+        }
+        return null;
+    }
+}
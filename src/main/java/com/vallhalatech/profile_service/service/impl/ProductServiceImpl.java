@@ -1,40 +1,145 @@
 package com.vallhalatech.profile_service.service.impl;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.vallhalatech.profile_service.persistence.entities.Category;
 import com.vallhalatech.profile_service.persistence.entities.Product;
-import com.vallhalatech.profile_service.persistence.repositories.ICategoryRepository;
+import com.vallhalatech.profile_service.persistence.jdbc.ProductJdbcRepository;
+import com.vallhalatech.profile_service.persistence.jdbc.ProductJdbcRepository.StockChange;
+import com.vallhalatech.profile_service.persistence.projections.FacetRow;
+import com.vallhalatech.profile_service.persistence.projections.PriceRange;
+import com.vallhalatech.profile_service.persistence.projections.ProductField;
+import com.vallhalatech.profile_service.persistence.projections.ProductVersion;
 import com.vallhalatech.profile_service.persistence.repositories.IProductRepository;
+import com.vallhalatech.profile_service.persistence.routing.RoutingContext;
+import com.vallhalatech.profile_service.persistence.specifications.ProductSpecifications;
 import com.vallhalatech.profile_service.service.IProductService;
+import com.vallhalatech.profile_service.service.cache.CategoryDictionary;
+import com.vallhalatech.profile_service.service.cache.ProductCountCache;
+import com.vallhalatech.profile_service.service.cache.ProductResponseCache;
+import com.vallhalatech.profile_service.service.cache.SearchFacetCache;
+import com.vallhalatech.profile_service.service.cache.SkuDirectory;
+import com.vallhalatech.profile_service.service.events.ProductChangedEvent;
+import com.vallhalatech.profile_service.service.search.ProductSearchIndex;
+import com.vallhalatech.profile_service.service.stock.HotStockAggregator;
 import com.vallhalatech.profile_service.utils.mappers.IProductMapper;
+import com.vallhalatech.profile_service.utils.pagination.CursorCodec;
+import com.vallhalatech.profile_service.utils.pagination.TotalMode;
+import com.vallhalatech.profile_service.web.dtos.category.response.CategoryResponse;
 import com.vallhalatech.profile_service.web.dtos.category.response.ProductResponse;
+import com.vallhalatech.profile_service.web.dtos.product.request.BulkStockUpdateRequest;
 import com.vallhalatech.profile_service.web.dtos.product.request.ProductRequest;
+import com.vallhalatech.profile_service.web.dtos.product.request.ProductSearchFilter;
+import com.vallhalatech.profile_service.web.dtos.product.response.BulkStockUpdateResponse;
+import com.vallhalatech.profile_service.web.dtos.product.response.BulkStockUpdateResponse.ItemResult;
+import com.vallhalatech.profile_service.web.dtos.product.response.BulkStockUpdateResponse.Status;
+import com.vallhalatech.profile_service.web.dtos.product.response.ProductBatchResponse;
+import com.vallhalatech.profile_service.web.dtos.product.response.SearchFacets;
+import com.vallhalatech.profile_service.web.dtos.product.response.SkuResolveResponse;
 import com.vallhalatech.profile_service.web.dtos.response.BaseResponse;
+import com.vallhalatech.profile_service.web.dtos.response.PageResponse;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Page;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.http.HttpStatus;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.interceptor.TransactionAspectSupport;
 
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 @Service
 public class ProductServiceImpl implements IProductService {
 
+    // Campos admitidos en un Merge Patch: los mismos que ProductRequest
+    private static final Set<String> PATCHABLE_FIELDS =
+            Set.of("name", "description", "imageUrl", "price", "categoryId", "stock", "sku");
+
+    private static final String HOT_STOCK_BLOCKED =
+            "Stock bloqueado: hay un cambio anterior pendiente que la base de datos rechazó";
+
     private final IProductRepository productRepository;
-    private final ICategoryRepository categoryRepository;
+    private final ProductJdbcRepository productJdbcRepository;
+    private final CategoryDictionary categoryDictionary;
     private final IProductMapper productMapper;
+    private final ProductCountCache productCountCache;
+    private final ProductSearchIndex productSearchIndex;
+    private final ProductResponseCache productResponseCache;
+    private final SearchFacetCache searchFacetCache;
+    private final SkuDirectory skuDirectory;
+    private final HotStockAggregator hotStock;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectMapper objectMapper;
+    private final int bulkStockMaxItems;
+    private final int batchMaxIds;
+    private final int skuResolveMaxSkus;
+    private final BigDecimal defaultPriceBucketWidth;
+    private final int maxPriceBuckets;
 
     @Autowired
     public ProductServiceImpl(IProductRepository productRepository,
-                              ICategoryRepository categoryRepository,
-                              IProductMapper productMapper) {
+                              ProductJdbcRepository productJdbcRepository,
+                              CategoryDictionary categoryDictionary,
+                              IProductMapper productMapper,
+                              ProductCountCache productCountCache,
+                              ProductSearchIndex productSearchIndex,
+                              ProductResponseCache productResponseCache,
+                              SearchFacetCache searchFacetCache,
+                              SkuDirectory skuDirectory,
+                              HotStockAggregator hotStock,
+                              ApplicationEventPublisher eventPublisher,
+                              ObjectMapper objectMapper,
+                              @Value("${products.stock.bulk.max-items:10000}") int bulkStockMaxItems,
+                              @Value("${products.batch.max-ids:1000}") int batchMaxIds,
+                              @Value("${products.sku.resolve.max-skus:10000}") int skuResolveMaxSkus,
+                              @Value("${products.facets.price-bucket-width:50}") BigDecimal defaultPriceBucketWidth,
+                              @Value("${products.facets.max-price-buckets:1000}") int maxPriceBuckets) {
         this.productRepository = productRepository;
-        this.categoryRepository = categoryRepository;
+        this.productJdbcRepository = productJdbcRepository;
+        this.categoryDictionary = categoryDictionary;
         this.productMapper = productMapper;
+        this.productCountCache = productCountCache;
+        this.productSearchIndex = productSearchIndex;
+        this.productResponseCache = productResponseCache;
+        this.searchFacetCache = searchFacetCache;
+        this.skuDirectory = skuDirectory;
+        this.hotStock = hotStock;
+        this.eventPublisher = eventPublisher;
+        this.objectMapper = objectMapper;
+        this.bulkStockMaxItems = bulkStockMaxItems;
+        this.batchMaxIds = batchMaxIds;
+        this.skuResolveMaxSkus = skuResolveMaxSkus;
+        this.defaultPriceBucketWidth = defaultPriceBucketWidth;
+        this.maxPriceBuckets = maxPriceBuckets;
     }
 
     @Override
@@ -42,7 +147,7 @@ public class ProductServiceImpl implements IProductService {
     public BaseResponse addProduct(ProductRequest productRequest) {
         try {
             // Validar que la categoría exista
-            Optional<Category> categoryOpt = categoryRepository.findById(productRequest.getCategoryId());
+            Optional<Category> categoryOpt = categoryDictionary.findById(productRequest.getCategoryId());
             if (categoryOpt.isEmpty()) {
                 return BaseResponse.builder()
                         .data(null)
@@ -58,6 +163,7 @@ public class ProductServiceImpl implements IProductService {
 
             // Guardar producto
             Product savedProduct = productRepository.save(product);
+            eventPublisher.publishEvent(ProductChangedEvent.created(savedProduct));
 
             // Convertir entidad a DTO respuesta
             ProductResponse response = productMapper.toResponse(savedProduct);
@@ -81,8 +187,9 @@ public class ProductServiceImpl implements IProductService {
     @Override
     public BaseResponse getProductById(Long id) {
         try {
-            Optional<Product> productOpt = productRepository.findById(id);
-            if (productOpt.isEmpty()) {
+            // Lectura a través de la caché; solo se consulta la base de datos en un fallo
+            ProductResponse response = loadCached(id);
+            if (response == null) {
                 return BaseResponse.builder()
                         .data(null)
                         .message("Producto no encontrado")
@@ -91,8 +198,6 @@ public class ProductServiceImpl implements IProductService {
                         .build();
             }
 
-            ProductResponse response = productMapper.toResponse(productOpt.get());
-
             return BaseResponse.builder()
                     .data(response)
                     .message("Producto encontrado")
@@ -110,17 +215,185 @@ public class ProductServiceImpl implements IProductService {
     }
 
     @Override
-    public BaseResponse getAllProducts(int page, int size) {
+    public BaseResponse getProductBySku(String sku) {
         try {
-            Pageable pageable = PageRequest.of(page, size);
-            Page<Product> productPage = productRepository.findAll(pageable);
+            if (sku == null || sku.isBlank()) {
+                return BaseResponse.builder()
+                        .data(null)
+                        .message("El SKU es obligatorio")
+                        .success(false)
+                        .httpStatus(HttpStatus.BAD_REQUEST)
+                        .build();
+            }
+
+            // El directorio da el id sin tocar la base de datos y el producto sale de la caché por id
+            Long id = skuDirectory.findId(sku);
+            if (id != null) {
+                ProductResponse response = loadCached(id);
+                // Otra instancia pudo borrar el producto o cambiarle el SKU: se comprueba antes de responder
+                if (response != null && sku.equals(response.getSku())) {
+                    return productFound(response);
+                }
+                skuDirectory.evict(sku, id);
+            }
+
+            // Fallo del directorio: una sola consulta sobre el índice único, en la primaria porque
+            // el resultado se guarda en el directorio
+            long generation = skuDirectory.generation();
+            Optional<Product> product = RoutingContext.onPrimary(() -> productRepository.findBySku(sku));
+            if (product.isEmpty()) {
+                return BaseResponse.builder()
+                        .data(null)
+                        .message("Producto no encontrado")
+                        .success(false)
+                        .httpStatus(HttpStatus.NOT_FOUND)
+                        .build();
+            }
+            skuDirectory.remember(sku, product.get().getId(), generation);
+            return productFound(productMapper.toResponse(product.get()));
+        } catch (Exception e) {
+            return BaseResponse.builder()
+                    .data(null)
+                    .message("Error al obtener el producto: " + e.getMessage())
+                    .success(false)
+                    .httpStatus(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .build();
+        }
+    }
+
+    @Override
+    public BaseResponse resolveSkus(List<String> skus) {
+        try {
+            if (skus == null || skus.isEmpty() || skus.size() > skuResolveMaxSkus) {
+                return BaseResponse.builder()
+                        .data(null)
+                        .message("Se requieren entre 1 y " + skuResolveMaxSkus + " SKU")
+                        .success(false)
+                        .httpStatus(HttpStatus.BAD_REQUEST)
+                        .build();
+            }
+
+            // Se conserva el orden de la petición y se descartan repetidos y vacíos
+            Set<String> requested = skus.stream()
+                    .filter(sku -> sku != null && !sku.isBlank())
+                    .collect(Collectors.toCollection(LinkedHashSet::new));
+
+            // IN por tramos sobre el índice único. El directorio no se usa como fuente: sus entradas
+            // pueden estar obsoletas por cambios de otras instancias y aquí no hay producto con el
+            // que contrastarlas. Sí se corrige con lo leído para las búsquedas individuales.
+            long generation = skuDirectory.generation();
+            Map<String, Long> found = productJdbcRepository.findIdsBySku(requested);
+            for (String sku : requested) {
+                Long id = found.get(sku);
+                Long known = skuDirectory.findId(sku);
+                if (id == null && known != null) {
+                    skuDirectory.evict(sku, known);
+                } else if (id != null && !id.equals(known)) {
+                    skuDirectory.remember(sku, id, generation);
+                }
+            }
+
+            Map<String, Long> ids = new LinkedHashMap<>();
+            List<String> missingSkus = new ArrayList<>();
+            for (String sku : requested) {
+                Long id = found.get(sku);
+                if (id != null) {
+                    ids.put(sku, id);
+                } else {
+                    missingSkus.add(sku);
+                }
+            }
+
+            return BaseResponse.builder()
+                    .data(SkuResolveResponse.builder()
+                            .ids(ids)
+                            .missingSkus(missingSkus)
+                            .build())
+                    .message("SKU resueltos exitosamente")
+                    .success(true)
+                    .httpStatus(HttpStatus.OK)
+                    .build();
+        } catch (Exception e) {
+            return BaseResponse.builder()
+                    .data(null)
+                    .message("Error al resolver los SKU: " + e.getMessage())
+                    .success(false)
+                    .httpStatus(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .build();
+        }
+    }
+
+    // La caché es compartida: se rellena desde la primaria para no guardar lo leído de una réplica retrasada
+    private ProductResponse loadCached(Long id) {
+        return productResponseCache.get(id, key -> RoutingContext.onPrimary(() -> productRepository.findById(key)
+                .map(productMapper::toResponse)
+                .orElse(null)));
+    }
+
+    private static BaseResponse productFound(ProductResponse response) {
+        return BaseResponse.builder()
+                .data(response)
+                .message("Producto encontrado")
+                .success(true)
+                .httpStatus(HttpStatus.OK)
+                .build();
+    }
 
-            List<ProductResponse> productResponses = productPage.getContent().stream()
-                    .map(productMapper::toResponse)
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<ProductVersion> getProductVersion(Long id) {
+        // Si está en caché no hace falta ir a la base de datos
+        ProductResponse cached = productResponseCache.getIfPresent(id);
+        if (cached != null) {
+            return Optional.of(new ProductVersion(cached.getVersion(), cached.getUpdatedAt()));
+        }
+        return productRepository.findVersionById(id);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public BaseResponse getProductsByIds(List<Long> ids) {
+        try {
+            if (ids == null || ids.isEmpty() || ids.size() > batchMaxIds) {
+                return BaseResponse.builder()
+                        .data(null)
+                        .message("Se requieren entre 1 y " + batchMaxIds + " ids")
+                        .success(false)
+                        .httpStatus(HttpStatus.BAD_REQUEST)
+                        .build();
+            }
+
+            // Se conserva el orden de la petición y se descartan repetidos
+            Set<Long> requested = ids.stream()
+                    .filter(Objects::nonNull)
+                    .collect(Collectors.toCollection(LinkedHashSet::new));
+
+            // Primero la caché; lo que falte se resuelve con un único IN con la categoría en JOIN FETCH
+            Map<Long, ProductResponse> found = new HashMap<>(productResponseCache.getAllPresent(requested));
+            List<Long> misses = requested.stream()
+                    .filter(id -> !found.containsKey(id))
                     .collect(Collectors.toList());
+            if (!misses.isEmpty()) {
+                productRepository.findAllWithCategoryByIdIn(misses)
+                        .forEach(product -> found.put(product.getId(), productMapper.toResponse(product)));
+            }
+
+            List<ProductResponse> items = new ArrayList<>(found.size());
+            List<Long> missingIds = new ArrayList<>();
+            for (Long id : requested) {
+                ProductResponse response = found.get(id);
+                if (response != null) {
+                    items.add(response);
+                } else {
+                    missingIds.add(id);
+                }
+            }
 
             return BaseResponse.builder()
-                    .data(productResponses)
+                    .data(ProductBatchResponse.builder()
+                            .items(items)
+                            .missingIds(missingIds)
+                            .build())
                     .message("Productos obtenidos exitosamente")
                     .success(true)
                     .httpStatus(HttpStatus.OK)
@@ -136,27 +409,64 @@ public class ProductServiceImpl implements IProductService {
     }
 
     @Override
-    public BaseResponse searchProducts(String name, Long categoryId, int page, int size) {
+    @Transactional(readOnly = true)
+    public BaseResponse getAllProducts(int page, int size, TotalMode totalMode) {
         try {
             Pageable pageable = PageRequest.of(page, size);
-            Page<Product> productPage;
-
-            if (name != null && categoryId != null) {
-                productPage = productRepository.findByNameContainingAndCategoryId(name, categoryId, pageable);
-            } else if (name != null) {
-                productPage = productRepository.findByNameContaining(name, pageable);
-            } else if (categoryId != null) {
-                productPage = productRepository.findByCategoryId(categoryId, pageable);
-            } else {
-                productPage = productRepository.findAll(pageable);
+            Slice<Product> productSlice = productRepository.findAllBy(pageable);
+
+            PageResponse<ProductResponse> response = toSlicePage(productSlice, totalMode,
+                    productCountCache::estimateTotal, productRepository::count);
+
+            return BaseResponse.builder()
+                    .data(response)
+                    .message("Productos obtenidos exitosamente")
+                    .success(true)
+                    .httpStatus(HttpStatus.OK)
+                    .build();
+        } catch (Exception e) {
+            return BaseResponse.builder()
+                    .data(null)
+                    .message("Error al obtener los productos: " + e.getMessage())
+                    .success(false)
+                    .httpStatus(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .build();
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public BaseResponse searchProducts(ProductSearchFilter filter, Sort sort, int page, int size,
+                                       TotalMode totalMode, boolean withFacets, BigDecimal priceBucketWidth) {
+        try {
+            if (size <= 0) {
+                return invalidPageSize();
+            }
+            if (withFacets && !isValidPriceBucketWidth(filter, priceBucketWidth)) {
+                return invalidPriceBucketWidth();
             }
 
-            List<ProductResponse> productResponses = productPage.getContent().stream()
-                    .map(productMapper::toResponse)
-                    .collect(Collectors.toList());
+            PageResponse<ProductResponse> response;
+            if (isIndexable(filter, sort)) {
+                // El índice en memoria resuelve el filtro; la base de datos solo hidrata la página
+                response = toIndexedPage(productSearchIndex.search(filter.getName(), filter.getCategoryId()),
+                        page, size, totalMode);
+            } else {
+                // Una sola sentencia: filtros, orden y LIMIT size + 1 para saber si hay página siguiente
+                Specification<Product> spec = ProductSpecifications.matching(filter);
+                Sort order = sort.isUnsorted() ? Sort.by("id") : sort;
+                List<Product> rows = productRepository.findPage(spec, order, (long) page * size, size + 1);
+                boolean hasNext = rows.size() > size;
+                Slice<Product> slice = new SliceImpl<>(hasNext ? rows.subList(0, size) : rows,
+                        PageRequest.of(page, size, order), hasNext);
+                response = toSlicePage(slice, totalMode, () -> estimateTotal(filter), () -> productRepository.count(spec));
+            }
+            if (withFacets) {
+                response = response.toBuilder().facets(facets(filter, priceBucketWidth)).build();
+            }
 
             return BaseResponse.builder()
-                    .data(productResponses)
+                    .data(response)
                     .message("Búsqueda de productos completada")
                     .success(true)
                     .httpStatus(HttpStatus.OK)
@@ -172,10 +482,11 @@ public class ProductServiceImpl implements IProductService {
     }
 
     @Override
-    public BaseResponse getProductsByCategory(Long categoryId, int page, int size) {
+    @Transactional(readOnly = true)
+    public BaseResponse getProductsByCategory(Long categoryId, int page, int size, TotalMode totalMode) {
         try {
             // Validar que la categoría exista
-            boolean categoryExists = categoryRepository.existsById(categoryId);
+            boolean categoryExists = categoryDictionary.existsById(categoryId);
             if (!categoryExists) {
                 return BaseResponse.builder()
                         .data(null)
@@ -186,14 +497,14 @@ public class ProductServiceImpl implements IProductService {
             }
 
             Pageable pageable = PageRequest.of(page, size);
-            Page<Product> productPage = productRepository.findByCategoryId(categoryId, pageable);
+            Slice<Product> productSlice = productRepository.findByCategoryId(categoryId, pageable);
 
-            List<ProductResponse> productResponses = productPage.getContent().stream()
-                    .map(productMapper::toResponse)
-                    .collect(Collectors.toList());
+            PageResponse<ProductResponse> response = toSlicePage(productSlice, totalMode,
+                    () -> productCountCache.estimateByCategory(categoryId),
+                    () -> productRepository.countByCategoryId(categoryId));
 
             return BaseResponse.builder()
-                    .data(productResponses)
+                    .data(response)
                     .message("Productos por categoría obtenidos exitosamente")
                     .success(true)
                     .httpStatus(HttpStatus.OK)
@@ -208,6 +519,242 @@ public class ProductServiceImpl implements IProductService {
         }
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public BaseResponse getAllProductsAfter(String after, int size) {
+        try {
+            if (size <= 0) {
+                return invalidPageSize();
+            }
+
+            long afterId = CursorCodec.decode(after);
+            List<Product> rows = productRepository.findByIdGreaterThanOrderByIdAsc(afterId, Limit.of(size + 1));
+
+            return BaseResponse.builder()
+                    .data(toCursorPage(rows, size))
+                    .message("Productos obtenidos exitosamente")
+                    .success(true)
+                    .httpStatus(HttpStatus.OK)
+                    .build();
+        } catch (IllegalArgumentException e) {
+            return invalidCursor(e);
+        } catch (Exception e) {
+            return BaseResponse.builder()
+                    .data(null)
+                    .message("Error al obtener los productos: " + e.getMessage())
+                    .success(false)
+                    .httpStatus(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .build();
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public BaseResponse searchProductsAfter(ProductSearchFilter filter, String after, int size,
+                                            boolean withFacets, BigDecimal priceBucketWidth) {
+        try {
+            if (size <= 0) {
+                return invalidPageSize();
+            }
+            if (withFacets && !isValidPriceBucketWidth(filter, priceBucketWidth)) {
+                return invalidPriceBucketWidth();
+            }
+
+            long afterId = CursorCodec.decode(after);
+            List<Product> rows;
+            if (isIndexable(filter, Sort.unsorted())) {
+                List<Long> ids = productSearchIndex.search(filter.getName(), filter.getCategoryId()).stream()
+                        .filter(id -> id > afterId)
+                        .sorted()
+                        .limit(size + 1L)
+                        .collect(Collectors.toList());
+                rows = findAllInOrder(ids);
+            } else {
+                // El cursor es el id: WHERE <filtros> AND id > :after ORDER BY id, sin OFFSET
+                rows = productRepository.findPage(
+                        ProductSpecifications.matching(filter).and(ProductSpecifications.idGreaterThan(afterId)),
+                        Sort.by("id"), 0, size + 1);
+            }
+            PageResponse<ProductResponse> response = toCursorPage(rows, size);
+            if (withFacets) {
+                response = response.toBuilder().facets(facets(filter, priceBucketWidth)).build();
+            }
+
+            return BaseResponse.builder()
+                    .data(response)
+                    .message("Búsqueda de productos completada")
+                    .success(true)
+                    .httpStatus(HttpStatus.OK)
+                    .build();
+        } catch (IllegalArgumentException e) {
+            return invalidCursor(e);
+        } catch (Exception e) {
+            return BaseResponse.builder()
+                    .data(null)
+                    .message("Error en la búsqueda de productos: " + e.getMessage())
+                    .success(false)
+                    .httpStatus(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .build();
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public BaseResponse getProductsByCategoryAfter(Long categoryId, String after, int size) {
+        try {
+            if (size <= 0) {
+                return invalidPageSize();
+            }
+
+            // Validar que la categoría exista
+            boolean categoryExists = categoryDictionary.existsById(categoryId);
+            if (!categoryExists) {
+                return BaseResponse.builder()
+                        .data(null)
+                        .message("La categoría especificada no existe")
+                        .success(false)
+                        .httpStatus(HttpStatus.BAD_REQUEST)
+                        .build();
+            }
+
+            long afterId = CursorCodec.decode(after);
+            List<Product> rows = productRepository.findByCategoryIdAndIdGreaterThanOrderByIdAsc(
+                    categoryId, afterId, Limit.of(size + 1));
+
+            return BaseResponse.builder()
+                    .data(toCursorPage(rows, size))
+                    .message("Productos por categoría obtenidos exitosamente")
+                    .success(true)
+                    .httpStatus(HttpStatus.OK)
+                    .build();
+        } catch (IllegalArgumentException e) {
+            return invalidCursor(e);
+        } catch (Exception e) {
+            return BaseResponse.builder()
+                    .data(null)
+                    .message("Error al obtener productos por categoría: " + e.getMessage())
+                    .success(false)
+                    .httpStatus(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .build();
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public BaseResponse searchProductFields(ProductSearchFilter filter, Set<ProductField> fields, Sort sort,
+                                            int page, int size, TotalMode totalMode) {
+        try {
+            if (size <= 0) {
+                return invalidPageSize();
+            }
+            if (filter.getCategoryId() != null && !categoryDictionary.existsById(filter.getCategoryId())) {
+                return unknownCategory();
+            }
+
+            PageResponse<Map<String, Object>> response;
+            if (isIndexable(filter, sort)) {
+                // El índice resuelve el filtro y el orden; la base de datos solo proyecta la página
+                List<Long> matchedIds = productSearchIndex.search(filter.getName(), filter.getCategoryId());
+                int from = (int) Math.min((long) page * size, matchedIds.size());
+                int to = Math.min(from + size, matchedIds.size());
+                boolean withTotal = totalMode != TotalMode.NONE;
+                response = PageResponse.<Map<String, Object>>builder()
+                        .items(findFieldsInOrder(fields, matchedIds.subList(from, to)))
+                        .page(page)
+                        .size(size)
+                        .hasNext(to < matchedIds.size())
+                        .totalElements(withTotal ? (long) matchedIds.size() : null)
+                        .totalEstimated(withTotal ? false : null)
+                        .build();
+            } else {
+                // Se pide una fila extra para saber si hay página siguiente sin contar
+                Specification<Product> spec = ProductSpecifications.matching(filter);
+                List<Map<String, Object>> rows = productRepository.findFields(fields, spec,
+                        sort.isUnsorted() ? Sort.by("id") : sort, (long) page * size, size + 1);
+                boolean hasNext = rows.size() > size;
+                Total total = Total.resolve(totalMode, () -> estimateTotal(filter), () -> productRepository.count(spec));
+                response = PageResponse.<Map<String, Object>>builder()
+                        .items(hasNext ? rows.subList(0, size) : rows)
+                        .page(page)
+                        .size(size)
+                        .hasNext(hasNext)
+                        .totalElements(total.elements())
+                        .totalEstimated(total.estimated())
+                        .build();
+            }
+
+            return BaseResponse.builder()
+                    .data(response)
+                    .message("Búsqueda de productos completada")
+                    .success(true)
+                    .httpStatus(HttpStatus.OK)
+                    .build();
+        } catch (Exception e) {
+            return BaseResponse.builder()
+                    .data(null)
+                    .message("Error en la búsqueda de productos: " + e.getMessage())
+                    .success(false)
+                    .httpStatus(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .build();
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public BaseResponse searchProductFieldsAfter(ProductSearchFilter filter, Set<ProductField> fields,
+                                                 String after, int size) {
+        try {
+            if (size <= 0) {
+                return invalidPageSize();
+            }
+            if (filter.getCategoryId() != null && !categoryDictionary.existsById(filter.getCategoryId())) {
+                return unknownCategory();
+            }
+
+            long afterId = CursorCodec.decode(after);
+            List<Map<String, Object>> rows;
+            if (isIndexable(filter, Sort.unsorted())) {
+                List<Long> ids = productSearchIndex.search(filter.getName(), filter.getCategoryId()).stream()
+                        .filter(id -> id > afterId)
+                        .sorted()
+                        .limit(size + 1L)
+                        .collect(Collectors.toList());
+                rows = findFieldsInOrder(fields, ids);
+            } else {
+                rows = productRepository.findFields(fields,
+                        ProductSpecifications.matching(filter).and(ProductSpecifications.idGreaterThan(afterId)),
+                        Sort.by("id"), 0, size + 1);
+            }
+
+            boolean hasNext = rows.size() > size;
+            List<Map<String, Object>> pageRows = hasNext ? rows.subList(0, size) : rows;
+            String nextCursor = hasNext
+                    ? CursorCodec.encode((Long) pageRows.get(pageRows.size() - 1).get(ProductField.ID.getJsonName()))
+                    : null;
+
+            return BaseResponse.builder()
+                    .data(PageResponse.<Map<String, Object>>builder()
+                            .items(pageRows)
+                            .size(size)
+                            .hasNext(hasNext)
+                            .nextCursor(nextCursor)
+                            .build())
+                    .message("Búsqueda de productos completada")
+                    .success(true)
+                    .httpStatus(HttpStatus.OK)
+                    .build();
+        } catch (IllegalArgumentException e) {
+            return invalidCursor(e);
+        } catch (Exception e) {
+            return BaseResponse.builder()
+                    .data(null)
+                    .message("Error en la búsqueda de productos: " + e.getMessage())
+                    .success(false)
+                    .httpStatus(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .build();
+        }
+    }
+
     @Override
     @Transactional
     public BaseResponse updateProduct(Long id, ProductRequest productRequest) {
@@ -224,7 +771,7 @@ public class ProductServiceImpl implements IProductService {
             }
 
             // Verificar que la categoría exista
-            Optional<Category> categoryOpt = categoryRepository.findById(productRequest.getCategoryId());
+            Optional<Category> categoryOpt = categoryDictionary.findById(productRequest.getCategoryId());
             if (categoryOpt.isEmpty()) {
                 return BaseResponse.builder()
                         .data(null)
@@ -234,8 +781,13 @@ public class ProductServiceImpl implements IProductService {
                         .build();
             }
 
-            // Actualizar el producto
+            // El stock de un producto en modo hot solo cambia por deltas
             Product product = productOpt.get();
+            if (hotStock.isHot(id) && !Objects.equals(product.getStock(), productRequest.getStock())) {
+                return hotStockConflict();
+            }
+
+            // Actualizar el producto
             product.setName(productRequest.getName());
             product.setDescription(productRequest.getDescription());
             product.setImageUrl(productRequest.getImageUrl());
@@ -244,7 +796,9 @@ public class ProductServiceImpl implements IProductService {
             product.setStock(productRequest.getStock());
             product.setSku(productRequest.getSku());
 
-            Product updatedProduct = productRepository.save(product);
+            // Flush explícito: la respuesta lleva la versión nueva y un conflicto se informa como 409
+            Product updatedProduct = productRepository.saveAndFlush(product);
+            eventPublisher.publishEvent(ProductChangedEvent.updated(updatedProduct));
             ProductResponse response = productMapper.toResponse(updatedProduct);
 
             return BaseResponse.builder()
@@ -253,6 +807,106 @@ public class ProductServiceImpl implements IProductService {
                     .success(true)
                     .httpStatus(HttpStatus.OK)
                     .build();
+        } catch (ObjectOptimisticLockingFailureException e) {
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
+            return versionConflict(null);
+        } catch (Exception e) {
+            return BaseResponse.builder()
+                    .data(null)
+                    .message("Error al actualizar el producto: " + e.getMessage())
+                    .success(false)
+                    .httpStatus(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .build();
+        }
+    }
+
+    @Override
+    @Transactional
+    public BaseResponse patchProduct(Long id, JsonNode patch, Long expectedVersion) {
+        try {
+            if (patch == null || !patch.isObject()) {
+                return BaseResponse.builder()
+                        .data(null)
+                        .message("El cuerpo debe ser un objeto JSON Merge Patch")
+                        .success(false)
+                        .httpStatus(HttpStatus.BAD_REQUEST)
+                        .build();
+            }
+            for (Iterator<String> names = patch.fieldNames(); names.hasNext(); ) {
+                String field = names.next();
+                if (!PATCHABLE_FIELDS.contains(field)) {
+                    return BaseResponse.builder()
+                            .data(null)
+                            .message("Campo no modificable: " + field)
+                            .success(false)
+                            .httpStatus(HttpStatus.BAD_REQUEST)
+                            .build();
+                }
+            }
+
+            Optional<Product> productOpt = productRepository.findById(id);
+            if (productOpt.isEmpty()) {
+                return BaseResponse.builder()
+                        .data(null)
+                        .message("Producto no encontrado")
+                        .success(false)
+                        .httpStatus(HttpStatus.NOT_FOUND)
+                        .build();
+            }
+
+            Product product = productOpt.get();
+            if (expectedVersion != null && expectedVersion != product.getVersion()) {
+                return versionConflict(product.getVersion());
+            }
+
+            // RFC 7396 sobre un objeto plano: cada campo presente reemplaza el valor; null lo borra
+            ProductRequest merged = objectMapper.readerForUpdating(productMapper.toRequest(product))
+                    .readValue(patch);
+            String error = ProductRequestRules.validate(merged, categoryDictionary::existsById);
+            if (error != null) {
+                return BaseResponse.builder()
+                        .data(null)
+                        .message(error)
+                        .success(false)
+                        .httpStatus(HttpStatus.BAD_REQUEST)
+                        .build();
+            }
+
+            if (hotStock.isHot(id) && !Objects.equals(product.getStock(), merged.getStock())) {
+                return hotStockConflict();
+            }
+
+            // Sin cambios reales no se emite UPDATE ni se invalida nada
+            if (!applyChanges(product, merged)) {
+                return BaseResponse.builder()
+                        .data(productMapper.toResponse(product))
+                        .message("El producto no tiene cambios")
+                        .success(true)
+                        .httpStatus(HttpStatus.OK)
+                        .build();
+            }
+
+            // El flush dentro del try convierte un conflicto de versión en 409 y no en 500 al commit
+            Product updatedProduct = productRepository.saveAndFlush(product);
+            eventPublisher.publishEvent(ProductChangedEvent.updated(updatedProduct));
+
+            return BaseResponse.builder()
+                    .data(productMapper.toResponse(updatedProduct))
+                    .message("Producto actualizado exitosamente")
+                    .success(true)
+                    .httpStatus(HttpStatus.OK)
+                    .build();
+        } catch (ObjectOptimisticLockingFailureException e) {
+            // La sesión no es reutilizable tras un flush fallido: no se consulta la versión actual
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
+            return versionConflict(null);
+        } catch (JsonProcessingException e) {
+            return BaseResponse.builder()
+                    .data(null)
+                    .message("Valor inválido en el parche: " + e.getOriginalMessage())
+                    .success(false)
+                    .httpStatus(HttpStatus.BAD_REQUEST)
+                    .build();
         } catch (Exception e) {
             return BaseResponse.builder()
                     .data(null)
@@ -278,6 +932,11 @@ public class ProductServiceImpl implements IProductService {
                         .build();
             }
 
+            // Un valor absoluto pisaría los deltas pendientes de vaciar
+            if (hotStock.isHot(id)) {
+                return hotStockConflict();
+            }
+
             // Validar stock
             if (stock < 0) {
                 return BaseResponse.builder()
@@ -291,7 +950,8 @@ public class ProductServiceImpl implements IProductService {
             // Actualizar stock
             Product product = productOpt.get();
             product.setStock(stock);
-            Product updatedProduct = productRepository.save(product);
+            Product updatedProduct = productRepository.saveAndFlush(product);
+            eventPublisher.publishEvent(ProductChangedEvent.stockChanged(id));
 
             ProductResponse response = productMapper.toResponse(updatedProduct);
 
@@ -301,6 +961,9 @@ public class ProductServiceImpl implements IProductService {
                     .success(true)
                     .httpStatus(HttpStatus.OK)
                     .build();
+        } catch (ObjectOptimisticLockingFailureException e) {
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
+            return versionConflict(null);
         } catch (Exception e) {
             return BaseResponse.builder()
                     .data(null)
@@ -313,11 +976,81 @@ public class ProductServiceImpl implements IProductService {
 
     @Override
     @Transactional
-    public BaseResponse deleteProduct(Long id) {
+    public BaseResponse reserveStock(Long id, Integer quantity) {
         try {
-            // Verificar que el producto exista
-            boolean exists = productRepository.existsById(id);
-            if (!exists) {
+            // Validar cantidad
+            if (quantity == null || quantity <= 0) {
+                return BaseResponse.builder()
+                        .data(null)
+                        .message("La cantidad debe ser mayor a cero")
+                        .success(false)
+                        .httpStatus(HttpStatus.BAD_REQUEST)
+                        .build();
+            }
+
+            // Producto en modo hot: el descuento se acumula en memoria sin bloquear la fila
+            if (hotStock.isHot(id)) {
+                return hotStockResult(hotStock.apply(id, -quantity), "Stock reservado exitosamente");
+            }
+
+            // Descontar en una sola sentencia condicional
+            int updated = productRepository.reserveStock(id, quantity, LocalDateTime.now());
+            if (updated == 0) {
+                // Solo en el camino de fallo distinguimos "no existe" de "sin stock"
+                if (!productRepository.existsById(id)) {
+                    return BaseResponse.builder()
+                            .data(null)
+                            .message("Producto no encontrado")
+                            .success(false)
+                            .httpStatus(HttpStatus.NOT_FOUND)
+                            .build();
+                }
+                return BaseResponse.builder()
+                        .data(null)
+                        .message("Stock insuficiente")
+                        .success(false)
+                        .httpStatus(HttpStatus.CONFLICT)
+                        .build();
+            }
+            eventPublisher.publishEvent(ProductChangedEvent.stockChanged(id));
+
+            return BaseResponse.builder()
+                    .data(null)
+                    .message("Stock reservado exitosamente")
+                    .success(true)
+                    .httpStatus(HttpStatus.OK)
+                    .build();
+        } catch (Exception e) {
+            return BaseResponse.builder()
+                    .data(null)
+                    .message("Error al reservar el stock: " + e.getMessage())
+                    .success(false)
+                    .httpStatus(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .build();
+        }
+    }
+
+    @Override
+    @Transactional
+    public BaseResponse releaseStock(Long id, Integer quantity) {
+        try {
+            // Validar cantidad
+            if (quantity == null || quantity <= 0) {
+                return BaseResponse.builder()
+                        .data(null)
+                        .message("La cantidad debe ser mayor a cero")
+                        .success(false)
+                        .httpStatus(HttpStatus.BAD_REQUEST)
+                        .build();
+            }
+
+            if (hotStock.isHot(id)) {
+                return hotStockResult(hotStock.apply(id, quantity), "Stock liberado exitosamente");
+            }
+
+            // Incrementar en una sola sentencia
+            int updated = productRepository.releaseStock(id, quantity, LocalDateTime.now());
+            if (updated == 0) {
                 return BaseResponse.builder()
                         .data(null)
                         .message("Producto no encontrado")
@@ -325,9 +1058,159 @@ public class ProductServiceImpl implements IProductService {
                         .httpStatus(HttpStatus.NOT_FOUND)
                         .build();
             }
+            eventPublisher.publishEvent(ProductChangedEvent.stockChanged(id));
+
+            return BaseResponse.builder()
+                    .data(null)
+                    .message("Stock liberado exitosamente")
+                    .success(true)
+                    .httpStatus(HttpStatus.OK)
+                    .build();
+        } catch (Exception e) {
+            return BaseResponse.builder()
+                    .data(null)
+                    .message("Error al liberar el stock: " + e.getMessage())
+                    .success(false)
+                    .httpStatus(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .build();
+        }
+    }
+
+    @Override
+    @Transactional
+    public BaseResponse updateStockBulk(List<BulkStockUpdateRequest.Item> items) {
+        try {
+            if (items == null || items.isEmpty() || items.size() > bulkStockMaxItems) {
+                return BaseResponse.builder()
+                        .data(null)
+                        .message("La lista debe contener entre 1 y " + bulkStockMaxItems + " elementos")
+                        .success(false)
+                        .httpStatus(HttpStatus.BAD_REQUEST)
+                        .build();
+            }
+
+            long start = System.nanoTime();
+            ItemResult[] results = new ItemResult[items.size()];
+
+            // Los SKU se resuelven a ids con una sola consulta
+            Set<String> skus = new HashSet<>();
+            for (BulkStockUpdateRequest.Item item : items) {
+                if (item != null && item.getId() == null && item.getSku() != null) {
+                    skus.add(item.getSku());
+                }
+            }
+            Map<String, Long> idsBySku = skus.isEmpty() ? Map.of() : productJdbcRepository.findIdsBySku(skus);
+
+            List<StockChange> changes = new ArrayList<>(items.size());
+            List<Integer> changeIndexes = new ArrayList<>(items.size());
+            Map<Integer, Long> hotItems = new LinkedHashMap<>();
+            for (int i = 0; i < items.size(); i++) {
+                BulkStockUpdateRequest.Item item = items.get(i);
+                String error = validateStockItem(item);
+                if (error != null) {
+                    results[i] = new ItemResult(i, item != null ? item.getId() : null,
+                            item != null ? item.getSku() : null, Status.INVALID, error);
+                    continue;
+                }
+                Long id = item.getId() != null ? item.getId() : idsBySku.get(item.getSku());
+                if (id == null) {
+                    results[i] = new ItemResult(i, null, item.getSku(), Status.NOT_FOUND, "Producto no encontrado");
+                    continue;
+                }
+                if (hotStock.isHot(id)) {
+                    hotItems.put(i, id);
+                    continue;
+                }
+                changes.add(new StockChange(id, item.getStock(), item.getDelta() != null ? item.getDelta() : 0));
+                changeIndexes.add(i);
+            }
 
-            // Eliminar producto
-            productRepository.deleteById(id);
+            // Todos los cambios viajan en un único lote JDBC dentro de esta transacción
+            int[] counts = changes.isEmpty()
+                    ? new int[0]
+                    : productJdbcRepository.updateStockBatch(changes, LocalDateTime.now());
+
+            List<Long> rejectedIds = new ArrayList<>();
+            for (int c = 0; c < counts.length; c++) {
+                if (counts[c] == 0) {
+                    rejectedIds.add(changes.get(c).id());
+                }
+            }
+            Set<Long> existingRejected = rejectedIds.isEmpty()
+                    ? Set.of()
+                    : productJdbcRepository.findExistingIds(rejectedIds);
+
+            int updated = 0;
+            for (int c = 0; c < counts.length; c++) {
+                int index = changeIndexes.get(c);
+                StockChange change = changes.get(c);
+                String sku = items.get(index).getSku();
+                // updateStockBatch devuelve recuentos reales, nunca SUCCESS_NO_INFO
+                if (counts[c] > 0) {
+                    results[index] = new ItemResult(index, change.id(), sku, Status.UPDATED, null);
+                    eventPublisher.publishEvent(ProductChangedEvent.stockChanged(change.id()));
+                    updated++;
+                } else if (existingRejected.contains(change.id())) {
+                    results[index] = new ItemResult(index, change.id(), sku, Status.INSUFFICIENT_STOCK,
+                            "El stock no puede ser negativo");
+                } else {
+                    results[index] = new ItemResult(index, change.id(), sku, Status.NOT_FOUND,
+                            "Producto no encontrado");
+                }
+            }
+
+            // Los productos en modo hot se anotan en el diario solo si el lote no falló: ese diario
+            // no participa en la transacción. Si el commit fallara después, sus deltas se aplicarían igual
+            for (Map.Entry<Integer, Long> hotItem : hotItems.entrySet()) {
+                int index = hotItem.getKey();
+                results[index] = applyHotStockItem(index, hotItem.getValue(), items.get(index));
+                if (results[index].getStatus() == Status.UPDATED) {
+                    updated++;
+                }
+            }
+
+            BulkStockUpdateResponse response = BulkStockUpdateResponse.builder()
+                    .requested(items.size())
+                    .updated(updated)
+                    .failed(items.size() - updated)
+                    .elapsedMillis(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start))
+                    .results(List.of(results))
+                    .build();
+
+            return BaseResponse.builder()
+                    .data(response)
+                    .message(updated == items.size()
+                            ? "Stock actualizado exitosamente"
+                            : "Stock actualizado con errores")
+                    .success(true)
+                    .httpStatus(HttpStatus.OK)
+                    .build();
+        } catch (Exception e) {
+            // Un lote que falla a medias no debe confirmar las filas ya aplicadas
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
+            return BaseResponse.builder()
+                    .data(null)
+                    .message("Error al actualizar el stock: " + e.getMessage())
+                    .success(false)
+                    .httpStatus(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .build();
+        }
+    }
+
+    @Override
+    @Transactional
+    public BaseResponse deleteProduct(Long id) {
+        try {
+            // Un único DELETE: si no afecta a ninguna fila el producto no existe
+            if (productRepository.deleteReturningCount(id) == 0) {
+                return BaseResponse.builder()
+                        .data(null)
+                        .message("Producto no encontrado")
+                        .success(false)
+                        .httpStatus(HttpStatus.NOT_FOUND)
+                        .build();
+            }
+            eventPublisher.publishEvent(ProductChangedEvent.deleted(id));
 
             return BaseResponse.builder()
                     .data(null)
@@ -344,4 +1227,352 @@ public class ProductServiceImpl implements IProductService {
                     .build();
         }
     }
-}
\ No newline at end of file
+
+    // Los productos en modo hot solo admiten deltas dentro de un lote
+    private ItemResult applyHotStockItem(int index, Long id, BulkStockUpdateRequest.Item item) {
+        if (item.getStock() != null) {
+            return new ItemResult(index, id, item.getSku(), Status.INVALID,
+                    "El stock de este producto solo admite cambios por delta");
+        }
+        return switch (hotStock.apply(id, item.getDelta())) {
+            case APPLIED -> new ItemResult(index, id, item.getSku(), Status.UPDATED, null);
+            case INSUFFICIENT_STOCK -> new ItemResult(index, id, item.getSku(), Status.INSUFFICIENT_STOCK,
+                    "El stock no puede ser negativo");
+            case NOT_FOUND -> new ItemResult(index, id, item.getSku(), Status.NOT_FOUND, "Producto no encontrado");
+            case BLOCKED -> new ItemResult(index, id, item.getSku(), Status.BLOCKED, HOT_STOCK_BLOCKED);
+        };
+    }
+
+    private static String validateStockItem(BulkStockUpdateRequest.Item item) {
+        if (item == null) {
+            return "Elemento vacío";
+        }
+        if ((item.getId() == null) == (item.getSku() == null)) {
+            return "Debe indicarse id o sku, no ambos";
+        }
+        if ((item.getStock() == null) == (item.getDelta() == null)) {
+            return "Debe indicarse stock o delta, no ambos";
+        }
+        if (item.getStock() != null && item.getStock() < 0) {
+            return "El stock no puede ser negativo";
+        }
+        return null;
+    }
+
+    // El índice de trigramas solo resuelve nombre + categoría, en su propio orden (relevancia o id)
+    private boolean isIndexable(ProductSearchFilter filter, Sort sort) {
+        return filter.getName() != null
+                && productSearchIndex.isReady()
+                && filter.getSku() == null
+                && filter.getMinPrice() == null
+                && filter.getMaxPrice() == null
+                && filter.getInStock() == null
+                && filter.getActive() == null
+                && filter.getCreatedFrom() == null
+                && filter.getCreatedTo() == null
+                && filter.getUpdatedFrom() == null
+                && filter.getUpdatedTo() == null
+                && sort.isUnsorted();
+    }
+
+    // Solo hay estimación en caché para el catálogo completo o una categoría sin más filtros
+    private Optional<Long> estimateTotal(ProductSearchFilter filter) {
+        ProductSearchFilter unfiltered = ProductSearchFilter.of(null, filter.getCategoryId());
+        if (!unfiltered.equals(filter)) {
+            return Optional.empty();
+        }
+        return filter.getCategoryId() != null
+                ? productCountCache.estimateByCategory(filter.getCategoryId())
+                : productCountCache.estimateTotal();
+    }
+
+    // Proyecta los ids respetando el orden recibido; los ids borrados entretanto se omiten
+    private List<Map<String, Object>> findFieldsInOrder(Set<ProductField> fields, List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Object, Map<String, Object>> byId = productRepository.findFields(fields,
+                        (root, query, cb) -> root.get("id").in(ids), Sort.unsorted(), 0, ids.size())
+                .stream()
+                .collect(Collectors.toMap(row -> row.get(ProductField.ID.getJsonName()), Function.identity()));
+        return ids.stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    // Total informado según el modo pedido: nada, estimado (con caída al exacto) o exacto
+    private record Total(Long elements, Boolean estimated) {
+
+        static Total resolve(TotalMode totalMode, Supplier<Optional<Long>> estimate, LongSupplier exactCount) {
+            if (totalMode == TotalMode.ESTIMATED) {
+                Optional<Long> estimated = estimate.get();
+                return new Total(estimated.orElseGet(exactCount::getAsLong), estimated.isPresent());
+            } else if (totalMode == TotalMode.EXACT) {
+                return new Total(exactCount.getAsLong(), false);
+            }
+            return new Total(null, null);
+        }
+    }
+
+    // Un ancho muy pequeño agruparía cada precio en su propio tramo: se rechaza si el rango de precios
+    // del filtro daría más tramos de los permitidos. El ancho por defecto es de configuración y no se comprueba
+    private boolean isValidPriceBucketWidth(ProductSearchFilter filter, BigDecimal priceBucketWidth) {
+        if (priceBucketWidth == null) {
+            return true;
+        }
+        if (priceBucketWidth.signum() <= 0) {
+            return false;
+        }
+        PriceRange range = productRepository.findPriceRange(ProductSpecifications.matching(filter));
+        if (range.min() == null) {
+            return true;
+        }
+        BigDecimal buckets = range.max().divide(priceBucketWidth, 0, RoundingMode.FLOOR)
+                .subtract(range.min().divide(priceBucketWidth, 0, RoundingMode.FLOOR))
+                .add(BigDecimal.ONE);
+        return buckets.compareTo(BigDecimal.valueOf(maxPriceBuckets)) <= 0;
+    }
+
+    // Facetas de toda la búsqueda (no de la página) a partir de un único agregado agrupado
+    private SearchFacets facets(ProductSearchFilter filter, BigDecimal priceBucketWidth) {
+        BigDecimal width = priceBucketWidth != null ? priceBucketWidth : defaultPriceBucketWidth;
+        return searchFacetCache.get(filter, width, () -> toFacets(
+                productRepository.aggregateFacets(ProductSpecifications.matching(filter), width), width));
+    }
+
+    // Las filas categoría × tramo se pliegan en los recuentos por categoría y el histograma de precios
+    private SearchFacets toFacets(List<FacetRow> rows, BigDecimal width) {
+        long total = 0;
+        long inStock = 0;
+        long active = 0;
+        Map<Long, Long> byCategory = new HashMap<>();
+        TreeMap<Long, Long> byBucket = new TreeMap<>();
+        for (FacetRow row : rows) {
+            total += row.count();
+            inStock += row.inStock();
+            active += row.active();
+            byCategory.merge(row.categoryId(), row.count(), Long::sum);
+            if (row.priceBucket() != null) {
+                byBucket.merge(row.priceBucket(), row.count(), Long::sum);
+            }
+        }
+
+        List<SearchFacets.CategoryFacet> categories = byCategory.entrySet().stream()
+                .map(entry -> new SearchFacets.CategoryFacet(entry.getKey(),
+                        categoryDictionary.getResponse(entry.getKey()).map(CategoryResponse::getName).orElse(null),
+                        entry.getValue()))
+                .sorted(Comparator.comparingLong(SearchFacets.CategoryFacet::getCount).reversed())
+                .collect(Collectors.toList());
+        List<SearchFacets.PriceBucket> prices = byBucket.entrySet().stream()
+                .map(entry -> {
+                    BigDecimal from = width.multiply(BigDecimal.valueOf(entry.getKey()));
+                    return new SearchFacets.PriceBucket(from, from.add(width), entry.getValue());
+                })
+                .collect(Collectors.toList());
+
+        return SearchFacets.builder()
+                .total(total)
+                .inStock(inStock)
+                .active(active)
+                .categories(categories)
+                .priceBucketWidth(width)
+                .prices(prices)
+                .build();
+    }
+
+    private PageResponse<ProductResponse> toSlicePage(Slice<Product> slice,
+                                                      TotalMode totalMode,
+                                                      Supplier<Optional<Long>> estimate,
+                                                      LongSupplier exactCount) {
+        List<ProductResponse> items = slice.getContent().stream()
+                .map(productMapper::toResponse)
+                .collect(Collectors.toList());
+
+        Total total = Total.resolve(totalMode, estimate, exactCount);
+
+        return PageResponse.<ProductResponse>builder()
+                .items(items)
+                .page(slice.getNumber())
+                .size(slice.getSize())
+                .hasNext(slice.hasNext())
+                .totalElements(total.elements())
+                .totalEstimated(total.estimated())
+                .build();
+    }
+
+    private PageResponse<ProductResponse> toIndexedPage(List<Long> matchedIds, int page, int size,
+                                                        TotalMode totalMode) {
+        int from = (int) Math.min((long) page * size, matchedIds.size());
+        int to = Math.min(from + size, matchedIds.size());
+
+        List<ProductResponse> items = findAllInOrder(matchedIds.subList(from, to)).stream()
+                .map(productMapper::toResponse)
+                .collect(Collectors.toList());
+
+        // Con el índice el total exacto es gratuito
+        boolean withTotal = totalMode != TotalMode.NONE;
+        return PageResponse.<ProductResponse>builder()
+                .items(items)
+                .page(page)
+                .size(size)
+                .hasNext(to < matchedIds.size())
+                .totalElements(withTotal ? (long) matchedIds.size() : null)
+                .totalEstimated(withTotal ? false : null)
+                .build();
+    }
+
+    // Hidrata los ids respetando el orden recibido; los ids borrados entretanto se omiten
+    private List<Product> findAllInOrder(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Product> byId = productRepository.findAllWithCategoryByIdIn(ids).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+        return ids.stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    // Se pide una fila extra para saber si hay página siguiente sin contar
+    private PageResponse<ProductResponse> toCursorPage(List<Product> rows, int size) {
+        boolean hasNext = rows.size() > size;
+        List<Product> pageRows = hasNext ? rows.subList(0, size) : rows;
+
+        List<ProductResponse> items = pageRows.stream()
+                .map(productMapper::toResponse)
+                .collect(Collectors.toList());
+
+        String nextCursor = hasNext ? CursorCodec.encode(pageRows.get(pageRows.size() - 1).getId()) : null;
+
+        return PageResponse.<ProductResponse>builder()
+                .items(items)
+                .size(size)
+                .hasNext(hasNext)
+                .nextCursor(nextCursor)
+                .build();
+    }
+
+    private BaseResponse invalidPageSize() {
+        return BaseResponse.builder()
+                .data(null)
+                .message("El tamaño de página debe ser mayor a cero")
+                .success(false)
+                .httpStatus(HttpStatus.BAD_REQUEST)
+                .build();
+    }
+
+    // Copia al producto solo los valores distintos; Hibernate escribirá únicamente esas columnas
+    private boolean applyChanges(Product product, ProductRequest merged) {
+        boolean changed = false;
+        if (!Objects.equals(product.getName(), merged.getName())) {
+            product.setName(merged.getName());
+            changed = true;
+        }
+        if (!Objects.equals(product.getDescription(), merged.getDescription())) {
+            product.setDescription(merged.getDescription());
+            changed = true;
+        }
+        if (!Objects.equals(product.getImageUrl(), merged.getImageUrl())) {
+            product.setImageUrl(merged.getImageUrl());
+            changed = true;
+        }
+        if (product.getPrice() == null || product.getPrice().compareTo(merged.getPrice()) != 0) {
+            product.setPrice(merged.getPrice());
+            changed = true;
+        }
+        if (!Objects.equals(product.getStock(), merged.getStock())) {
+            product.setStock(merged.getStock());
+            changed = true;
+        }
+        if (!Objects.equals(product.getSku(), merged.getSku())) {
+            product.setSku(merged.getSku());
+            changed = true;
+        }
+        Long currentCategoryId = product.getCategory() != null ? product.getCategory().getId() : null;
+        if (!Objects.equals(currentCategoryId, merged.getCategoryId())) {
+            product.setCategory(categoryDictionary.findById(merged.getCategoryId()).orElseThrow());
+            changed = true;
+        }
+        return changed;
+    }
+
+    // currentVersion es null cuando el conflicto se detecta al escribir y la versión no se conoce
+    private BaseResponse versionConflict(Long currentVersion) {
+        return BaseResponse.builder()
+                .data(currentVersion != null ? Map.of("currentVersion", currentVersion) : null)
+                .message(currentVersion != null
+                        ? "La versión indicada no coincide con la actual (" + currentVersion + ")"
+                        : "El producto fue modificado por otra petición")
+                .success(false)
+                .httpStatus(HttpStatus.CONFLICT)
+                .build();
+    }
+
+    private BaseResponse hotStockResult(HotStockAggregator.Outcome outcome, String successMessage) {
+        return switch (outcome) {
+            case APPLIED -> BaseResponse.builder()
+                    .data(null)
+                    .message(successMessage)
+                    .success(true)
+                    .httpStatus(HttpStatus.OK)
+                    .build();
+            case INSUFFICIENT_STOCK -> BaseResponse.builder()
+                    .data(null)
+                    .message("Stock insuficiente")
+                    .success(false)
+                    .httpStatus(HttpStatus.CONFLICT)
+                    .build();
+            case NOT_FOUND -> BaseResponse.builder()
+                    .data(null)
+                    .message("Producto no encontrado")
+                    .success(false)
+                    .httpStatus(HttpStatus.NOT_FOUND)
+                    .build();
+            case BLOCKED -> BaseResponse.builder()
+                    .data(null)
+                    .message(HOT_STOCK_BLOCKED)
+                    .success(false)
+                    .httpStatus(HttpStatus.CONFLICT)
+                    .build();
+        };
+    }
+
+    private BaseResponse hotStockConflict() {
+        return BaseResponse.builder()
+                .data(null)
+                .message("El stock de este producto se gestiona por reservas y liberaciones")
+                .success(false)
+                .httpStatus(HttpStatus.CONFLICT)
+                .build();
+    }
+
+    private BaseResponse invalidPriceBucketWidth() {
+        return BaseResponse.builder()
+                .data(null)
+                .message("El ancho de los tramos de precio debe ser mayor que cero y dar como máximo "
+                        + maxPriceBuckets + " tramos")
+                .success(false)
+                .httpStatus(HttpStatus.BAD_REQUEST)
+                .build();
+    }
+
+    private BaseResponse unknownCategory() {
+        return BaseResponse.builder()
+                .data(null)
+                .message("La categoría especificada no existe")
+                .success(false)
+                .httpStatus(HttpStatus.BAD_REQUEST)
+                .build();
+    }
+
+    private BaseResponse invalidCursor(IllegalArgumentException e) {
+        return BaseResponse.builder()
+                .data(null)
+                .message(e.getMessage())
+                .success(false)
+                .httpStatus(HttpStatus.BAD_REQUEST)
+                .build();
+    }
+}
@@ -0,0 +1,194 @@
+package com.vallhalatech.profile_service.service.search;
+
+import com.vallhalatech.profile_service.persistence.projections.ProductIndexView;
+import com.vallhalatech.profile_service.persistence.repositories.IProductRepository;
+import com.vallhalatech.profile_service.persistence.routing.RoutingContext;
+import com.vallhalatech.profile_service.service.events.ProductChangedEvent;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * Índice de búsqueda por nombre en memoria.
+ * Se construye al arrancar y se mantiene sincronizado con los eventos de producto
+ * publicados tras cada commit. Mientras no está listo, el servicio usa la consulta LIKE.
+ *
+ * <p>Las reconstrucciones se ejecutan de una en una. Las pedidas por importaciones van a un único
+ * hilo y se agrupan: las que llegan mientras hay una pendiente de empezar se resuelven con ella.</p>
+ */
+@Component
+@Slf4j
+public class ProductSearchIndex {
+
+    private final IProductRepository productRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final boolean enabled;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    // Se mantiene durante toda la reconstrucción: nunca hay dos a la vez
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+    private final ExecutorService rebuildExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "search-index-rebuild");
+        thread.setDaemon(true);
+        return thread;
+    });
+    // Hay una reconstrucción encolada que aún no ha empezado
+    private final AtomicBoolean rebuildQueued = new AtomicBoolean();
+
+    private TrigramIndex index = new TrigramIndex();
+    // Buffer de la reconstrucción en curso: los cambios recibidos se reaplican sobre el índice nuevo
+    private List<ProductChangedEvent> pendingChanges;
+    private volatile boolean ready;
+
+    @Autowired
+    public ProductSearchIndex(IProductRepository productRepository,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${products.search.index.enabled:true}") boolean enabled) {
+        this.productRepository = productRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.enabled = enabled;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        if (enabled) {
+            rebuild();
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Reconstruye el índice desde la base de datos. Si hay otra reconstrucción en curso espera a
+     * que termine.
+     */
+    public void rebuild() {
+        rebuildLock.lock();
+        try {
+            doRebuild();
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    /**
+     * Pide una reconstrucción en segundo plano sin bloquear al llamante. Si ya hay una encolada
+     * sin empezar no se añade otra; si hay una en curso, la nueva empieza cuando termine, así que
+     * siempre ve las filas confirmadas antes de la petición.
+     */
+    public void requestRebuild() {
+        if (rebuildQueued.compareAndSet(false, true)) {
+            rebuildExecutor.execute(() -> {
+                rebuildQueued.set(false);
+                rebuild();
+            });
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        rebuildExecutor.shutdownNow();
+    }
+
+    private void doRebuild() {
+        List<ProductChangedEvent> buffer = new ArrayList<>();
+        lock.writeLock().lock();
+        try {
+            pendingChanges = buffer;
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        try {
+            long start = System.nanoTime();
+            TrigramIndex rebuilt = new TrigramIndex();
+            // Desde la primaria: tras una importación una réplica retrasada aún no tendría las filas nuevas
+            RoutingContext.runOnPrimary(() -> readOnlyTransaction.executeWithoutResult(status -> {
+                try (Stream<ProductIndexView> rows = productRepository.streamIndexEntries()) {
+                    rows.forEach(row -> rebuilt.upsert(row.getId(), row.getName(), row.getCategoryId()));
+                }
+            }));
+
+            lock.writeLock().lock();
+            try {
+                buffer.forEach(change -> apply(rebuilt, change));
+                index = rebuilt;
+                ready = true;
+            } finally {
+                pendingChanges = null;
+                lock.writeLock().unlock();
+            }
+            log.info("Índice de búsqueda construido: {} productos en {} ms",
+                    rebuilt.size(), (System.nanoTime() - start) / 1_000_000);
+        } catch (Exception e) {
+            lock.writeLock().lock();
+            try {
+                pendingChanges = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            log.error("No se pudo construir el índice de búsqueda", e);
+        }
+    }
+
+    /**
+     * Ids de los productos cuyo nombre contiene el término, ordenados por relevancia.
+     */
+    public List<Long> search(String term, Long categoryId) {
+        lock.readLock().lock();
+        try {
+            return index.search(term, categoryId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        if (event.type() == ProductChangedEvent.ChangeType.BULK_IMPORTED) {
+            // Sin ids individuales: se reconstruye en segundo plano sin bloquear la petición
+            requestRebuild();
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            apply(index, event);
+            if (pendingChanges != null) {
+                pendingChanges.add(event);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static void apply(TrigramIndex target, ProductChangedEvent event) {
+        switch (event.type()) {
+            case CREATED, UPDATED -> target.upsert(event.productId(), event.name(), event.categoryId());
+            case DELETED -> target.remove(event.productId());
+            case STOCK_CHANGED, BULK_IMPORTED -> {
+                // El stock no forma parte del índice; las importaciones se resuelven con rebuild()
+            }
+        }
+    }
+}
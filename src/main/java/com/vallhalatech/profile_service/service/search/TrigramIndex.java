@@ -0,0 +1,208 @@
+package com.vallhalatech.profile_service.service.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Índice invertido de trigramas sobre el nombre de los productos.
+ * Resuelve búsquedas "contiene" (equivalentes a LIKE '%term%') sin recorrer la tabla:
+ * se intersectan las listas de los trigramas del término y se verifica la coincidencia exacta.
+ *
+ * <p>No es thread-safe; {@link ProductSearchIndex} coordina el acceso concurrente.</p>
+ */
+public class TrigramIndex {
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+
+    private final Map<Long, Document> documents = new HashMap<>();
+    private final Map<Long, PostingList> postings = new HashMap<>();
+
+    public void upsert(Long id, String name, Long categoryId) {
+        remove(id);
+        String normalized = normalize(name);
+        documents.put(id, new Document(normalized, categoryId));
+        for (long trigram : trigrams(normalized)) {
+            postings.computeIfAbsent(trigram, key -> new PostingList()).add(id);
+        }
+    }
+
+    public void remove(Long id) {
+        Document previous = documents.remove(id);
+        if (previous == null) {
+            return;
+        }
+        for (long trigram : trigrams(previous.name())) {
+            PostingList list = postings.get(trigram);
+            if (list != null) {
+                list.remove(id);
+                if (list.isEmpty()) {
+                    postings.remove(trigram);
+                }
+            }
+        }
+    }
+
+    public int size() {
+        return documents.size();
+    }
+
+    /**
+     * Devuelve los ids cuyo nombre contiene el término, ordenados por relevancia:
+     * primero coincidencias al inicio del nombre, luego al inicio de una palabra,
+     * luego por nombre más corto y finalmente por id.
+     */
+    public List<Long> search(String term, Long categoryId) {
+        String query = normalize(term);
+        List<Match> matches = new ArrayList<>();
+
+        if (query.length() < 3) {
+            // Términos cortos no forman trigramas: se recorre el diccionario en memoria
+            documents.forEach((id, document) -> collect(id, document, query, categoryId, matches));
+        } else {
+            long[] queryTrigrams = trigrams(query);
+            PostingList[] lists = new PostingList[queryTrigrams.length];
+            for (int i = 0; i < queryTrigrams.length; i++) {
+                lists[i] = postings.get(queryTrigrams[i]);
+                if (lists[i] == null) {
+                    return List.of();
+                }
+            }
+            Arrays.sort(lists, Comparator.comparingInt(PostingList::size));
+
+            PostingList smallest = lists[0];
+            for (int i = 0; i < smallest.size(); i++) {
+                long id = smallest.get(i);
+                if (containsAll(lists, id)) {
+                    collect(id, documents.get(id), query, categoryId, matches);
+                }
+            }
+        }
+
+        matches.sort(Comparator.comparingInt(Match::rank)
+                .thenComparingInt(Match::length)
+                .thenComparingLong(Match::id));
+
+        List<Long> ids = new ArrayList<>(matches.size());
+        for (Match match : matches) {
+            ids.add(match.id());
+        }
+        return ids;
+    }
+
+    private static boolean containsAll(PostingList[] lists, long id) {
+        for (int i = 1; i < lists.length; i++) {
+            if (!lists[i].contains(id)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void collect(long id, Document document, String query, Long categoryId, List<Match> matches) {
+        if (document == null || (categoryId != null && !categoryId.equals(document.categoryId()))) {
+            return;
+        }
+        int position = document.name().indexOf(query);
+        if (position < 0) {
+            return;
+        }
+        int rank;
+        if (position == 0) {
+            rank = 0;
+        } else if (!Character.isLetterOrDigit(document.name().charAt(position - 1))) {
+            rank = 1;
+        } else {
+            rank = 2;
+        }
+        matches.add(new Match(id, rank, document.name().length()));
+    }
+
+    // Minúsculas y sin tildes, igual que la colación *_ai_ci de MySQL
+    static String normalize(String value) {
+        if (value == null) {
+            return "";
+        }
+        String decomposed = Normalizer.normalize(value, Normalizer.Form.NFD);
+        return DIACRITICS.matcher(decomposed).replaceAll("").toLowerCase(Locale.ROOT);
+    }
+
+    // Cada trigrama se empaqueta en un long (3 chars de 16 bits) para no crear Strings
+    private static long[] trigrams(String value) {
+        if (value.length() < 3) {
+            return new long[0];
+        }
+        Set<Long> unique = new LinkedHashSet<>();
+        for (int i = 0; i + 3 <= value.length(); i++) {
+            unique.add(((long) value.charAt(i) << 32) | ((long) value.charAt(i + 1) << 16) | value.charAt(i + 2));
+        }
+        long[] result = new long[unique.size()];
+        int i = 0;
+        for (Long trigram : unique) {
+            result[i++] = trigram;
+        }
+        return result;
+    }
+
+    private record Document(String name, Long categoryId) {
+    }
+
+    private record Match(long id, int rank, int length) {
+    }
+
+    /**
+     * Lista de ids ordenada sobre un long[]; evita el coste de memoria de un Set&lt;Long&gt;
+     * cuando el catálogo tiene cientos de miles de productos.
+     */
+    private static final class PostingList {
+        private long[] ids = new long[4];
+        private int size;
+
+        void add(long id) {
+            int index = Arrays.binarySearch(ids, 0, size, id);
+            if (index >= 0) {
+                return;
+            }
+            int insertAt = -index - 1;
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            System.arraycopy(ids, insertAt, ids, insertAt + 1, size - insertAt);
+            ids[insertAt] = id;
+            size++;
+        }
+
+        void remove(long id) {
+            int index = Arrays.binarySearch(ids, 0, size, id);
+            if (index < 0) {
+                return;
+            }
+            System.arraycopy(ids, index + 1, ids, index, size - index - 1);
+            size--;
+        }
+
+        boolean contains(long id) {
+            return Arrays.binarySearch(ids, 0, size, id) >= 0;
+        }
+
+        long get(int index) {
+            return ids[index];
+        }
+
+        int size() {
+            return size;
+        }
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+    }
+}
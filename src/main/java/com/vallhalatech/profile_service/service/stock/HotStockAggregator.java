@@ -0,0 +1,401 @@
+package com.vallhalatech.profile_service.service.stock;
+
+import com.vallhalatech.profile_service.persistence.entities.StockFlushCheckpoint;
+import com.vallhalatech.profile_service.persistence.entities.StockFlushRejection;
+import com.vallhalatech.profile_service.persistence.jdbc.ProductJdbcRepository;
+import com.vallhalatech.profile_service.persistence.jdbc.ProductJdbcRepository.StockChange;
+import com.vallhalatech.profile_service.persistence.repositories.IStockFlushCheckpointRepository;
+import com.vallhalatech.profile_service.persistence.repositories.IStockFlushRejectionRepository;
+import com.vallhalatech.profile_service.persistence.routing.RoutingContext;
+import com.vallhalatech.profile_service.service.events.ProductChangedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Modo hot-SKU: los cambios de stock de los productos configurados en products.stock.hot.ids
+ * no bloquean la fila en cada petición. Cada delta se anota en un diario local, se suma a un
+ * contador en memoria y un vaciado periódico lo escribe en product.stock como un único lote.
+ *
+ * <ul>
+ *   <li>Suelo: available es el stock en base de datos más los deltas pendientes; un descuento
+ *   solo se acepta si no lo deja negativo (CAS), así que el lote nunca queda por debajo de cero.</li>
+ *   <li>Durabilidad: el delta se escribe en el diario antes de confirmarse. Al arrancar se reproducen
+ *   los segmentos posteriores al último checkpoint, que se guarda en la misma transacción que el lote.
+ *   Por defecto cada registro se fuerza a disco (fsync) antes de confirmar el delta.
+ *   Con products.stock.hot.fsync=false solo sobrevive a la caída del proceso, no a la de la máquina.
+ *   Los deltas aún en la caché de páginas del sistema se perderían.</li>
+ *   <li>Solo se admiten deltas: un valor absoluto se pisaría con los pendientes.</li>
+ *   <li>Rechazos: si el UPDATE de un vaciado no aplica (el stock real quedó por debajo del suelo,
+ *   p. ej. por una escritura fuera de este camino) el delta ya confirmado al cliente no se descarta:
+ *   se guarda en stock_flush_rejection junto con el checkpoint, se reintenta en cada vaciado y el
+ *   producto rechaza nuevos deltas (BLOCKED) hasta que el pendiente se aplique.</li>
+ * </ul>
+ *
+ * <p>El suelo es local a la instancia: cada producto en modo hot debe escribirse desde una sola
+ * instancia (enrutado por id). Las lecturas ven product.stock con el retraso de un vaciado.</p>
+ */
+@Component
+@Slf4j
+public class HotStockAggregator {
+
+    public enum Outcome {
+        APPLIED,
+        INSUFFICIENT_STOCK,
+        NOT_FOUND,
+        // Hay un delta anterior rechazado por la base de datos pendiente de aplicar
+        BLOCKED
+    }
+
+    private final ProductJdbcRepository productJdbcRepository;
+    private final IStockFlushCheckpointRepository checkpointRepository;
+    private final IStockFlushRejectionRepository rejectionRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final boolean enabled;
+    private final Set<Long> hotIds;
+    private final String nodeId;
+    private final StockJournal journal;
+    private final Timer flushTimer;
+    private final Counter rejectedCounter;
+
+    private final Map<Long, HotCounter> counters = new ConcurrentHashMap<>();
+    // Lectura: anotar un delta. Escritura: sellar el segmento y recoger los pendientes juntos
+    private final ReentrantReadWriteLock rotation = new ReentrantReadWriteLock();
+    private final ReentrantLock flushLock = new ReentrantLock();
+    // Deltas sellados que aún no llegaron a la base de datos (solo con flushLock)
+    private final Map<Long, Long> unflushed = new HashMap<>();
+    // Deltas rechazados guardados en stock_flush_rejection; su producto no admite nuevos deltas
+    private final Map<Long, Long> blocked = new ConcurrentHashMap<>();
+
+    @Autowired
+    public HotStockAggregator(ProductJdbcRepository productJdbcRepository,
+                              IStockFlushCheckpointRepository checkpointRepository,
+                              IStockFlushRejectionRepository rejectionRepository,
+                              PlatformTransactionManager transactionManager,
+                              ApplicationEventPublisher eventPublisher,
+                              MeterRegistry meterRegistry,
+                              @Value("${products.stock.hot.enabled:false}") boolean enabled,
+                              @Value("${products.stock.hot.ids:}") Set<Long> hotIds,
+                              @Value("${products.stock.hot.journal-dir:data/hot-stock}") String journalDir,
+                              @Value("${products.stock.hot.node-id:default}") String nodeId,
+                              @Value("${products.stock.hot.fsync:true}") boolean fsync) {
+        this.productJdbcRepository = productJdbcRepository;
+        this.checkpointRepository = checkpointRepository;
+        this.rejectionRepository = rejectionRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
+        this.enabled = enabled;
+        this.hotIds = Set.copyOf(hotIds);
+        this.nodeId = nodeId;
+        this.journal = new StockJournal(Path.of(journalDir), fsync);
+        if (enabled && !fsync) {
+            log.warn("products.stock.hot.fsync=false: los deltas confirmados pueden perderse si cae la máquina");
+        }
+        this.flushTimer = Timer.builder("products.stock.hot.flush")
+                .description("Vaciado del stock agregado en memoria a la base de datos")
+                .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("products.stock.hot.rejected")
+                .description("Deltas de stock rechazados por la base de datos al vaciarlos")
+                .register(meterRegistry);
+        Gauge.builder("products.stock.hot.counters", counters, Map::size)
+                .description("Productos con contador de stock en memoria")
+                .register(meterRegistry);
+        Gauge.builder("products.stock.hot.blocked", blocked, Map::size)
+                .description("Productos en modo hot bloqueados por un delta rechazado")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Reproduce los deltas del diario que no alcanzaron la base de datos antes de la última parada.
+     * Se ejecuta aunque el modo esté desactivado, para no perder lo anotado antes de desactivarlo.
+     */
+    @PostConstruct
+    public void recover() throws IOException {
+        if (!enabled && !journal.exists()) {
+            return;
+        }
+        // El punto de control decide qué se reproduce: nunca se lee de una réplica retrasada
+        long checkpoint = RoutingContext.onPrimary(() -> checkpointRepository.findById(nodeId))
+                .map(StockFlushCheckpoint::getSegment)
+                .orElse(0L);
+        RoutingContext.onPrimary(() -> rejectionRepository.findByNodeId(nodeId))
+                .forEach(rejection -> blocked.put(rejection.getProductId(), rejection.getDelta()));
+        if (!blocked.isEmpty()) {
+            log.error("Productos bloqueados por deltas de stock rechazados: {}", blocked);
+        }
+        List<Long> segments = journal.segments();
+        long lastSegment = segments.isEmpty() ? checkpoint : Math.max(checkpoint, segments.get(segments.size() - 1));
+
+        Map<Long, Long> pending = journal.read(checkpoint);
+        if (!pending.isEmpty()) {
+            log.info("Reproduciendo {} deltas de stock del diario (segmentos {}-{})",
+                    pending.size(), checkpoint + 1, lastSegment);
+        }
+        Map<Long, Long> batch = new HashMap<>(blocked);
+        pending.forEach((id, delta) -> batch.merge(id, delta, Long::sum));
+        if (!batch.isEmpty()) {
+            settle(batch, write(batch, lastSegment));
+        }
+        journal.deleteUpTo(lastSegment);
+        if (enabled) {
+            journal.open(lastSegment + 1);
+        }
+    }
+
+    public boolean isHot(Long id) {
+        return enabled && id != null && hotIds.contains(id);
+    }
+
+    /**
+     * Aplica un delta a un producto en modo hot. El cambio es durable al volver (está en el diario)
+     * y llega a product.stock en el siguiente vaciado.
+     */
+    public Outcome apply(long id, int delta) {
+        if (blocked.containsKey(id)) {
+            return Outcome.BLOCKED;
+        }
+        HotCounter counter = counters.computeIfAbsent(id, this::load);
+        if (counter == null) {
+            return Outcome.NOT_FOUND;
+        }
+        rotation.readLock().lock();
+        try {
+            if (!counter.tryApply(delta)) {
+                return Outcome.INSUFFICIENT_STOCK;
+            }
+            try {
+                journal.append(id, delta);
+            } catch (IOException e) {
+                counter.available.addAndGet(-delta);
+                throw new UncheckedIOException("No se pudo anotar el cambio de stock en el diario", e);
+            }
+            counter.pending.add(delta);
+            return Outcome.APPLIED;
+        } finally {
+            rotation.readLock().unlock();
+        }
+    }
+
+    // Stock comprometido en memoria (base de datos más pendientes), o null si no hay contador
+    public Long available(long id) {
+        HotCounter counter = counters.get(id);
+        return counter != null ? counter.available.get() : null;
+    }
+
+    // Delta rechazado pendiente de aplicar, o null si el producto no está bloqueado
+    public Long blockedDelta(long id) {
+        return blocked.get(id);
+    }
+
+    @Scheduled(fixedDelayString = "${products.stock.hot.flush-interval-ms:100}")
+    public void flush() {
+        if (!enabled) {
+            return;
+        }
+        flushLock.lock();
+        try {
+            flushTimer.record(this::flushPending);
+        } catch (RuntimeException e) {
+            // Los deltas siguen en unflushed y en el diario: se reintentan en el siguiente vaciado
+            log.warn("No se pudo vaciar el stock agregado: {}", e.getMessage());
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    // Un producto eliminado no debe seguir aceptando reservas en memoria
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        if (event.type() == ProductChangedEvent.ChangeType.DELETED && event.productId() != null) {
+            counters.remove(event.productId());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws IOException {
+        flush();
+        journal.close();
+    }
+
+    private void flushPending() {
+        long sealed;
+        rotation.writeLock().lock();
+        try {
+            sealed = journal.rotate();
+            counters.forEach((id, counter) -> {
+                long delta = counter.pending.sumThenReset();
+                if (delta != 0) {
+                    unflushed.merge(id, delta, Long::sum);
+                }
+            });
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            rotation.writeLock().unlock();
+        }
+
+        // Los deltas bloqueados vuelven a intentarse en cada vaciado
+        Map<Long, Long> batch = new HashMap<>(unflushed);
+        blocked.forEach((id, delta) -> batch.merge(id, delta, Long::sum));
+        FlushResult result = batch.isEmpty() ? FlushResult.EMPTY : write(batch, sealed);
+        unflushed.clear();
+        try {
+            journal.deleteUpTo(sealed);
+        } catch (IOException e) {
+            // El checkpoint ya evita reaplicarlos; se borrarán en el siguiente vaciado
+            log.warn("No se pudieron borrar los segmentos del diario: {}", e.getMessage());
+        }
+        settle(batch, result);
+    }
+
+    /**
+     * Escribe el lote, los rechazos y el checkpoint en una transacción. Los recuentos de
+     * updateStockBatch son reales, así que 0 significa producto inexistente o stock negativo.
+     * Un delta rechazado sobre un producto que sigue existiendo queda retenido en stock_flush_rejection.
+     */
+    private FlushResult write(Map<Long, Long> deltas, long segment) {
+        List<StockChange> changes = new ArrayList<>(deltas.size());
+        deltas.forEach((id, delta) -> changes.add(new StockChange(id, null, Math.toIntExact(delta))));
+        return transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            int[] counts = productJdbcRepository.updateStockBatch(changes, now);
+            Map<Long, Long> held = new HashMap<>();
+            Set<Long> missing = new HashSet<>();
+            for (int i = 0; i < counts.length; i++) {
+                StockChange change = changes.get(i);
+                if (counts[i] != 0) {
+                    continue;
+                }
+                if (productJdbcRepository.findStock(change.id()) != null) {
+                    held.put(change.id(), (long) change.delta());
+                } else {
+                    missing.add(change.id());
+                }
+            }
+            for (Map.Entry<Long, Long> entry : held.entrySet()) {
+                if (!entry.getValue().equals(blocked.get(entry.getKey()))) {
+                    rejectionRepository.save(new StockFlushRejection(entry.getKey(), nodeId, entry.getValue(), now));
+                }
+            }
+            for (Long id : blocked.keySet()) {
+                if (!held.containsKey(id)) {
+                    rejectionRepository.deleteById(id);
+                }
+            }
+            checkpointRepository.save(new StockFlushCheckpoint(nodeId, segment));
+            return new FlushResult(held, missing);
+        });
+    }
+
+    // Tras el commit: publica lo aplicado, bloquea lo retenido y realinea los contadores afectados
+    private void settle(Map<Long, Long> batch, FlushResult result) {
+        for (Map.Entry<Long, Long> entry : batch.entrySet()) {
+            Long id = entry.getKey();
+            Long heldDelta = result.held().get(id);
+            if (heldDelta != null) {
+                if (blocked.put(id, heldDelta) == null) {
+                    rejectedCounter.increment();
+                    log.error("Delta de stock {} del producto {} rechazado por la base de datos; " +
+                            "el producto no admite nuevos deltas hasta aplicarlo", heldDelta, id);
+                    resync(id);
+                }
+                continue;
+            }
+            boolean wasBlocked = blocked.remove(id) != null;
+            if (result.missing().contains(id)) {
+                log.warn("Delta de stock {} descartado: el producto {} ya no existe", entry.getValue(), id);
+                counters.remove(id);
+                continue;
+            }
+            if (wasBlocked) {
+                log.info("Delta de stock pendiente del producto {} aplicado; producto desbloqueado", id);
+                resync(id);
+            }
+            eventPublisher.publishEvent(ProductChangedEvent.stockChanged(id));
+        }
+    }
+
+    // Tras un rechazo el contador se realinea con la base de datos
+    private void resync(Long id) {
+        rotation.writeLock().lock();
+        try {
+            HotCounter counter = counters.get(id);
+            if (counter == null) {
+                return;
+            }
+            Integer stock = productJdbcRepository.findStock(id);
+            if (stock == null) {
+                counters.remove(id);
+            } else {
+                counter.available.set(stock + counter.pending.sum());
+            }
+        } finally {
+            rotation.writeLock().unlock();
+        }
+    }
+
+    private HotCounter load(Long id) {
+        Integer stock = productJdbcRepository.findStock(id);
+        return stock != null ? new HotCounter(stock) : null;
+    }
+
+    private record FlushResult(Map<Long, Long> held, Set<Long> missing) {
+
+        private static final FlushResult EMPTY = new FlushResult(Map.of(), Set.of());
+    }
+
+    private static final class HotCounter {
+
+        // Lineal para poder comprobar el suelo; pending es solo un acumulador y va repartido
+        private final AtomicLong available;
+        private final LongAdder pending = new LongAdder();
+
+        private HotCounter(long stock) {
+            this.available = new AtomicLong(stock);
+        }
+
+        private boolean tryApply(int delta) {
+            if (delta >= 0) {
+                available.addAndGet(delta);
+                return true;
+            }
+            long current;
+            do {
+                current = available.get();
+                if (current + delta < 0) {
+                    return false;
+                }
+            } while (!available.compareAndSet(current, current + delta));
+            return true;
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.vallhalatech.profile_service.service.stock;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Diario local de solo anexado para los deltas de stock en modo hot-SKU.
+ * Se escribe en segmentos numerados (segment-N.log) con registros fijos de 12 bytes (id, delta).
+ * Cada vaciado sella el segmento en curso y lo borra cuando sus deltas ya están en la base de datos.
+ *
+ * <p>Con fsync, append no vuelve hasta que el registro está en disco. Sin fsync el registro puede
+ * quedarse en la caché de páginas del sistema hasta el siguiente rotate.</p>
+ *
+ * <p>append admite llamadas concurrentes; rotate, open y close requieren acceso exclusivo.</p>
+ */
+class StockJournal implements Closeable {
+
+    private static final String PREFIX = "segment-";
+    private static final String SUFFIX = ".log";
+    private static final int RECORD_BYTES = Long.BYTES + Integer.BYTES;
+
+    private final Path directory;
+    private final boolean fsync;
+    private FileChannel channel;
+    private long segment;
+    private volatile boolean dirty;
+
+    StockJournal(Path directory, boolean fsync) {
+        this.directory = directory;
+        this.fsync = fsync;
+    }
+
+    boolean exists() {
+        return Files.isDirectory(directory);
+    }
+
+    // Números de segmento presentes en disco, en orden ascendente
+    List<Long> segments() throws IOException {
+        List<Long> segments = new ArrayList<>();
+        if (!exists()) {
+            return segments;
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, PREFIX + "*" + SUFFIX)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                segments.add(Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length())));
+            }
+        }
+        segments.sort(null);
+        return segments;
+    }
+
+    /**
+     * Suma por producto los deltas de los segmentos posteriores a afterSegment.
+     * Un registro incompleto al final de un segmento (escritura cortada) se ignora.
+     */
+    Map<Long, Long> read(long afterSegment) throws IOException {
+        Map<Long, Long> deltas = new HashMap<>();
+        for (long candidate : segments()) {
+            if (candidate <= afterSegment) {
+                continue;
+            }
+            ByteBuffer records = ByteBuffer.wrap(Files.readAllBytes(path(candidate)));
+            while (records.remaining() >= RECORD_BYTES) {
+                deltas.merge(records.getLong(), (long) records.getInt(), Long::sum);
+            }
+        }
+        return deltas;
+    }
+
+    void open(long segment) throws IOException {
+        Files.createDirectories(directory);
+        this.channel = FileChannel.open(path(segment),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        this.segment = segment;
+        this.dirty = false;
+    }
+
+    void append(long id, int delta) throws IOException {
+        ByteBuffer record = ByteBuffer.allocate(RECORD_BYTES).putLong(id).putInt(delta).flip();
+        // FileChannel serializa las escrituras: cada registro queda contiguo
+        channel.write(record);
+        if (fsync) {
+            channel.force(false);
+        }
+        dirty = true;
+    }
+
+    /**
+     * Sella el segmento en curso y abre el siguiente.
+     *
+     * @return el último segmento sellado (el anterior si el actual está vacío y no se rota)
+     */
+    long rotate() throws IOException {
+        if (!dirty) {
+            return segment - 1;
+        }
+        channel.force(false);
+        channel.close();
+        long sealed = segment;
+        open(sealed + 1);
+        return sealed;
+    }
+
+    void deleteUpTo(long lastSegment) throws IOException {
+        for (long candidate : segments()) {
+            if (candidate <= lastSegment && candidate != segment) {
+                Files.deleteIfExists(path(candidate));
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (channel != null) {
+            channel.close();
+        }
+    }
+
+    private Path path(long segment) {
+        return directory.resolve(PREFIX + segment + SUFFIX);
+    }
+}
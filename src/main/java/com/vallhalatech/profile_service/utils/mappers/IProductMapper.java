@@ -12,7 +12,12 @@ public interface IProductMapper {
     @Mapping(target = "category", ignore = true)
     @Mapping(target = "createdAt", ignore = true)
     @Mapping(target = "updatedAt", ignore = true)
+    @Mapping(target = "version", ignore = true)
     Product toEntity(ProductRequest request);
 
+    // Estado actual como petición completa: base sobre la que se aplica un Merge Patch
+    @Mapping(target = "categoryId", source = "category.id")
+    ProductRequest toRequest(Product product);
+
     ProductResponse toResponse(Product product);
 }
\ No newline at end of file
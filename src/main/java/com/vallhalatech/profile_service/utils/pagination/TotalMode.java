@@ -0,0 +1,18 @@
+package com.vallhalatech.profile_service.utils.pagination;
+
+/**
+ * Indica si una consulta paginada debe informar el total de elementos.
+ * Por defecto no se cuenta: los listados solo informan si hay página siguiente.
+ */
+public enum TotalMode {
+    NONE,
+    ESTIMATED,
+    EXACT;
+
+    public static TotalMode of(boolean withTotal, boolean exactTotal) {
+        if (exactTotal) {
+            return EXACT;
+        }
+        return withTotal ? ESTIMATED : NONE;
+    }
+}
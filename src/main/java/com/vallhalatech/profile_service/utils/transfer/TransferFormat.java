@@ -0,0 +1,36 @@
+package com.vallhalatech.profile_service.utils.transfer;
+
+import org.springframework.http.MediaType;
+
+/**
+ * Formatos de intercambio masivo de productos (importación y exportación).
+ */
+public enum TransferFormat {
+    NDJSON("application/x-ndjson"),
+    CSV("text/csv");
+
+    private final String mediaType;
+
+    TransferFormat(String mediaType) {
+        this.mediaType = mediaType;
+    }
+
+    public String getMediaType() {
+        return mediaType;
+    }
+
+    /**
+     * @throws IllegalArgumentException si el tipo de contenido no es NDJSON ni CSV
+     */
+    public static TransferFormat fromMediaType(String contentType) {
+        if (contentType != null) {
+            MediaType parsed = MediaType.parseMediaType(contentType);
+            for (TransferFormat format : values()) {
+                if (MediaType.parseMediaType(format.mediaType).isCompatibleWith(parsed)) {
+                    return format;
+                }
+            }
+        }
+        throw new IllegalArgumentException("Formato no soportado: " + contentType);
+    }
+}
@@ -1,7 +1,7 @@
 package com.vallhalatech.profile_service.web.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.vallhalatech.profile_service.client.AuthServiceClient;
+import com.vallhalatech.profile_service.client.AuthUserCache;
 import com.vallhalatech.profile_service.client.dtos.BaseResponse;
 import com.vallhalatech.profile_service.client.dtos.InfoUserResponse;
 import lombok.extern.slf4j.Slf4j;
@@ -22,14 +22,14 @@ import static org.springframework.http.HttpStatus.*;
 @Slf4j  // Para logging
 public class ConsumeController {
 
-    private AuthServiceClient authServiceClient;
+    private AuthUserCache authUserCache;
 
 
     private ObjectMapper objectMapper;
 
     @Autowired
-    public ConsumeController(AuthServiceClient authServiceClient, ObjectMapper objectMapper) {
-        this.authServiceClient = authServiceClient;
+    public ConsumeController(AuthUserCache authUserCache, ObjectMapper objectMapper) {
+        this.authUserCache = authUserCache;
         this.objectMapper = objectMapper;
     }
     /**
@@ -44,8 +44,8 @@ public class ConsumeController {
         log.info("🔍 Buscando información para email: {}", email);
 
         try {
-            // 1. 📞 Llamar al auth-service
-            ResponseEntity<BaseResponse> response = authServiceClient.findUserByEmail(email);
+            // 1. 📞 Llamar al auth-service (a través de la caché)
+            ResponseEntity<BaseResponse> response = authUserCache.findUserByEmail(email);
 
             // 2. ✅ Verificar respuesta HTTP exitosa
             if (response.getStatusCode().is2xxSuccessful() && response.getBody() != null) {
@@ -90,7 +90,7 @@ public class ConsumeController {
         log.info("🔍 Búsqueda simple para email: {}", email);
 
         try {
-            ResponseEntity<BaseResponse> response = authServiceClient.findUserByEmail(email);
+            ResponseEntity<BaseResponse> response = authUserCache.findUserByEmail(email);
 
             if (response.getStatusCode().is2xxSuccessful() &&
                     response.getBody() != null &&
@@ -122,7 +122,7 @@ public class ConsumeController {
         log.info("🔍 Búsqueda detallada para email: {}", email);
 
         try {
-            ResponseEntity<BaseResponse> response = authServiceClient.findUserByEmail(email);
+            ResponseEntity<BaseResponse> response = authUserCache.findUserByEmail(email);
 
             // Manejo detallado por código de estado
             return switch (response.getStatusCode()) {
@@ -1,23 +1,66 @@
 package com.vallhalatech.profile_service.web.controller;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.vallhalatech.profile_service.persistence.projections.ProductField;
+import com.vallhalatech.profile_service.persistence.projections.ProductVersion;
+import com.vallhalatech.profile_service.persistence.specifications.ProductSpecifications;
+import com.vallhalatech.profile_service.service.IProductExportService;
+import com.vallhalatech.profile_service.service.IProductImportService;
 import com.vallhalatech.profile_service.service.IProductService;
+import com.vallhalatech.profile_service.service.events.ChangeStream;
+import com.vallhalatech.profile_service.utils.pagination.TotalMode;
+import com.vallhalatech.profile_service.utils.transfer.TransferFormat;
 
+import com.vallhalatech.profile_service.web.dtos.category.response.ProductResponse;
 import com.vallhalatech.profile_service.web.dtos.product.request.*;
 import com.vallhalatech.profile_service.web.dtos.response.BaseResponse;
+import com.vallhalatech.profile_service.web.sse.SseChangeSink;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import jakarta.validation.Valid;
 
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Set;
+
 @RestController
 @RequestMapping("/products")
 public class ProductController {
     private final IProductService productService;
+    private final IProductImportService productImportService;
+    private final IProductExportService productExportService;
+    private final ChangeStream changeStream;
+    private final long eventsTimeoutMillis;
 
     @Autowired
-    public ProductController( IProductService productService) {
+    public ProductController( IProductService productService,
+                              IProductImportService productImportService,
+                              IProductExportService productExportService,
+                              ChangeStream changeStream,
+                              @Value("${products.events.timeout-ms:1800000}") long eventsTimeoutMillis) {
         this.productService = productService;
+        this.productImportService = productImportService;
+        this.productExportService = productExportService;
+        this.changeStream = changeStream;
+        this.eventsTimeoutMillis = eventsTimeoutMillis;
     }
 
     // Crear un nuevo producto
@@ -27,30 +70,173 @@ public class ProductController {
         return response.buildResponseEntity();
     }
 
+    // Importación masiva en streaming (NDJSON o CSV con cabecera); informa errores por fila
+    @PostMapping(value = "/import", consumes = {"application/x-ndjson", "text/csv"})
+    public ResponseEntity<BaseResponse> importProducts(HttpServletRequest request) throws IOException {
+        TransferFormat format;
+        try {
+            format = TransferFormat.fromMediaType(request.getContentType());
+        } catch (IllegalArgumentException e) {
+            return BaseResponse.builder()
+                    .data(null)
+                    .message(e.getMessage())
+                    .success(false)
+                    .httpStatus(HttpStatus.UNSUPPORTED_MEDIA_TYPE)
+                    .build()
+                    .buildResponseEntity();
+        }
+        BaseResponse response = productImportService.importProducts(request.getInputStream(), format);
+        return response.buildResponseEntity();
+    }
+
+    // Exportación del catálogo completo en streaming (?format=ndjson|csv)
+    @GetMapping("/export")
+    public ResponseEntity<?> exportProducts(
+            @RequestParam(required = false, defaultValue = "ndjson") String format) {
+        TransferFormat transferFormat;
+        try {
+            transferFormat = TransferFormat.valueOf(format.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            return BaseResponse.builder()
+                    .data(null)
+                    .message("Formato no soportado: " + format)
+                    .success(false)
+                    .httpStatus(HttpStatus.BAD_REQUEST)
+                    .build()
+                    .buildResponseEntity();
+        }
+
+        StreamingResponseBody body = output -> productExportService.exportProducts(transferFormat, output);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(transferFormat.getMediaType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=products." + transferFormat.name().toLowerCase(Locale.ROOT))
+                .body(body);
+    }
+
+    // Flujo SSE de cambios confirmados de productos y categorías
+    // Se reanuda con la cabecera Last-Event-ID (o ?lastEventId= si el cliente no puede enviarla)
+    @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamEvents(
+            @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventIdHeader,
+            @RequestParam(required = false) Long lastEventId) {
+        SseEmitter emitter = new SseEmitter(eventsTimeoutMillis);
+        ChangeStream.Subscription subscription = changeStream.subscribe(
+                lastEventIdHeader != null ? lastEventIdHeader : lastEventId, new SseChangeSink(emitter));
+        if (subscription == null) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+        emitter.onCompletion(subscription::close);
+        emitter.onTimeout(subscription::close);
+        emitter.onError(e -> subscription.close());
+
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noStore())
+                // Evita que un proxy inverso acumule el flujo
+                .header("X-Accel-Buffering", "no")
+                .body(emitter);
+    }
+
+    // Obtener varios productos en una sola consulta (?ids=1,2,3), en el orden pedido
+    @GetMapping("/batch")
+    public ResponseEntity<BaseResponse> getProductsByIds(@RequestParam List<Long> ids) {
+        BaseResponse response = productService.getProductsByIds(ids);
+        return response.buildResponseEntity();
+    }
+
+    // Variante POST para listas de ids que no caben en la URL
+    @PostMapping("/batch")
+    public ResponseEntity<BaseResponse> getProductsByIdsPost(@RequestBody ProductBatchRequest batchRequest) {
+        BaseResponse response = productService.getProductsByIds(batchRequest.getIds());
+        return response.buildResponseEntity();
+    }
+
+    // Obtener un producto por SKU
+    @GetMapping("/sku/{sku}")
+    public ResponseEntity<BaseResponse> getProductBySku(@PathVariable String sku) {
+        BaseResponse response = productService.getProductBySku(sku);
+        return response.buildResponseEntity();
+    }
+
+    // Resolver una lista de SKU a ids en una sola llamada; los ids se consultan después con /batch
+    @PostMapping("/sku/resolve")
+    public ResponseEntity<BaseResponse> resolveSkus(@RequestBody SkuResolveRequest resolveRequest) {
+        BaseResponse response = productService.resolveSkus(resolveRequest.getSkus());
+        return response.buildResponseEntity();
+    }
+
     // Obtener un producto por ID
+    // GET condicional: ETag (versión) y Last-Modified (updatedAt); 304 sin cargar el producto.
+    // La versión solo se consulta aparte si la petición trae If-None-Match o If-Modified-Since
     @GetMapping("/{id}")
-    public ResponseEntity<BaseResponse> getProductById(@PathVariable Long id) {
+    public ResponseEntity<BaseResponse> getProductById(@PathVariable Long id, WebRequest webRequest) {
+        boolean conditional = webRequest.getHeader(HttpHeaders.IF_NONE_MATCH) != null
+                || webRequest.getHeader(HttpHeaders.IF_MODIFIED_SINCE) != null;
+        if (conditional) {
+            Optional<ProductVersion> version = productService.getProductVersion(id);
+            if (version.isPresent() && webRequest.checkNotModified(
+                    etag(version.get().version()), lastModified(version.get().updatedAt()))) {
+                return null;
+            }
+        }
         BaseResponse response = productService.getProductById(id);
+        // Sin cabeceras condicionales, ETag y Last-Modified salen del producto ya cargado
+        if (!conditional && response.getData() instanceof ProductResponse product) {
+            webRequest.checkNotModified(etag(product.getVersion()), lastModified(product.getUpdatedAt()));
+        }
         return response.buildResponseEntity();
     }
 
     // Obtener todos los productos (opcional: con paginación)
+    // Con ?fields=id,name,price solo se leen y devuelven esas columnas (el id siempre se incluye)
+    // Con ?after= (vacío para la primera página) se usa paginación por cursor
+    // Con ?withTotal=true se informa un total estimado; ?exactTotal=true fuerza un COUNT exacto
     @GetMapping
     public ResponseEntity<BaseResponse> getAllProducts(
             @RequestParam(required = false, defaultValue = "0") int page,
-            @RequestParam(required = false, defaultValue = "10") int size) {
-        BaseResponse response = productService.getAllProducts(page, size);
+            @RequestParam(required = false, defaultValue = "10") int size,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false, defaultValue = "false") boolean withTotal,
+            @RequestParam(required = false, defaultValue = "false") boolean exactTotal,
+            @RequestParam(required = false) String fields) {
+        if (fields != null) {
+            return searchFields(new ProductSearchFilter(), null, fields, page, size, after, withTotal, exactTotal);
+        }
+        BaseResponse response = after != null
+                ? productService.getAllProductsAfter(after, size)
+                : productService.getAllProducts(page, size, TotalMode.of(withTotal, exactTotal));
         return response.buildResponseEntity();
     }
 
-    // Filtrar productos por nombre
+    // Búsqueda con filtros combinables: name, categoryId, sku, minPrice, maxPrice, inStock, active,
+    // createdFrom/createdTo y updatedFrom/updatedTo (ISO-8601, rango [desde, hasta))
+    // Con ?sort=-price,name se ordena por varios campos (el signo menos indica descendente)
     @GetMapping("/search")
     public ResponseEntity<BaseResponse> searchProducts(
-            @RequestParam(required = false) String name,
-            @RequestParam(required = false) Long categoryId,
+            ProductSearchFilter filter,
+            @RequestParam(required = false) String sort,
             @RequestParam(required = false, defaultValue = "0") int page,
-            @RequestParam(required = false, defaultValue = "10") int size) {
-        BaseResponse response = productService.searchProducts(name, categoryId, page, size);
+            @RequestParam(required = false, defaultValue = "10") int size,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false, defaultValue = "false") boolean withTotal,
+            @RequestParam(required = false, defaultValue = "false") boolean exactTotal,
+            @RequestParam(required = false) String fields,
+            @RequestParam(required = false, defaultValue = "false") boolean facets,
+            @RequestParam(required = false) BigDecimal priceBucketWidth) {
+        if (fields != null) {
+            return searchFields(filter, sort, fields, page, size, after, withTotal, exactTotal);
+        }
+        Sort order;
+        try {
+            order = parseSort(sort, after);
+        } catch (IllegalArgumentException e) {
+            return badRequest(e.getMessage());
+        }
+        // Con ?facets=true la página incluye recuentos por categoría, histograma de precios y stock/activos
+        BaseResponse response = after != null
+                ? productService.searchProductsAfter(filter, after, size, facets, priceBucketWidth)
+                : productService.searchProducts(filter, order, page, size, TotalMode.of(withTotal, exactTotal),
+                        facets, priceBucketWidth);
         return response.buildResponseEntity();
     }
 
@@ -59,8 +245,18 @@ public class ProductController {
     public ResponseEntity<BaseResponse> getProductsByCategory(
             @PathVariable Long categoryId,
             @RequestParam(required = false, defaultValue = "0") int page,
-            @RequestParam(required = false, defaultValue = "10") int size) {
-        BaseResponse response = productService.getProductsByCategory(categoryId, page, size);
+            @RequestParam(required = false, defaultValue = "10") int size,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false, defaultValue = "false") boolean withTotal,
+            @RequestParam(required = false, defaultValue = "false") boolean exactTotal,
+            @RequestParam(required = false) String fields) {
+        if (fields != null) {
+            return searchFields(ProductSearchFilter.of(null, categoryId), null, fields, page, size, after,
+                    withTotal, exactTotal);
+        }
+        BaseResponse response = after != null
+                ? productService.getProductsByCategoryAfter(categoryId, after, size)
+                : productService.getProductsByCategory(categoryId, page, size, TotalMode.of(withTotal, exactTotal));
         return response.buildResponseEntity();
     }
 
@@ -73,6 +269,35 @@ public class ProductController {
         return response.buildResponseEntity();
     }
 
+    // Modificación parcial (JSON Merge Patch, RFC 7396): solo se escriben las columnas que cambian
+    // Con If-Match se exige la versión indicada; un conflicto de versión responde 409
+    @PatchMapping(value = "/{id}", consumes = {"application/merge-patch+json", MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<BaseResponse> patchProduct(
+            @PathVariable Long id,
+            @RequestBody JsonNode patch,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        Long expectedVersion;
+        try {
+            expectedVersion = parseIfMatch(ifMatch);
+        } catch (NumberFormatException e) {
+            return BaseResponse.builder()
+                    .data(null)
+                    .message("Cabecera If-Match inválida: " + ifMatch)
+                    .success(false)
+                    .httpStatus(HttpStatus.BAD_REQUEST)
+                    .build()
+                    .buildResponseEntity();
+        }
+
+        BaseResponse response = productService.patchProduct(id, patch, expectedVersion);
+        if (response.getData() instanceof ProductResponse product) {
+            return ResponseEntity.status(response.getHttpStatus())
+                    .eTag(etag(product.getVersion()))
+                    .body(response);
+        }
+        return response.buildResponseEntity();
+    }
+
     // Actualizar solo el stock (control de inventario)
     @PatchMapping("/{id}/stock")
     public ResponseEntity<BaseResponse> updateStock(
@@ -82,10 +307,98 @@ public class ProductController {
         return response.buildResponseEntity();
     }
 
+    // Actualización masiva de stock (por id o sku, valor absoluto o delta) en una transacción
+    @PatchMapping("/stock/bulk")
+    public ResponseEntity<BaseResponse> updateStockBulk(@RequestBody BulkStockUpdateRequest bulkRequest) {
+        BaseResponse response = productService.updateStockBulk(bulkRequest.getItems());
+        return response.buildResponseEntity();
+    }
+
+    // Reservar unidades de forma atómica (descuenta solo si hay stock suficiente)
+    @PostMapping("/{id}/stock/reserve")
+    public ResponseEntity<BaseResponse> reserveStock(
+            @PathVariable Long id,
+            @Valid @RequestBody StockReservationRequest reservationRequest) {
+        BaseResponse response = productService.reserveStock(id, reservationRequest.getQuantity());
+        return response.buildResponseEntity();
+    }
+
+    // Liberar unidades reservadas previamente
+    @PostMapping("/{id}/stock/release")
+    public ResponseEntity<BaseResponse> releaseStock(
+            @PathVariable Long id,
+            @Valid @RequestBody StockReservationRequest reservationRequest) {
+        BaseResponse response = productService.releaseStock(id, reservationRequest.getQuantity());
+        return response.buildResponseEntity();
+    }
+
     // Eliminar un producto
     @DeleteMapping("/{id}")
     public ResponseEntity<BaseResponse> deleteProduct(@PathVariable Long id) {
         BaseResponse response = productService.deleteProduct(id);
         return response.buildResponseEntity();
     }
-}
\ No newline at end of file
+
+    private static String etag(Long version) {
+        return "\"" + version + "\"";
+    }
+
+    private static long lastModified(LocalDateTime updatedAt) {
+        return updatedAt != null ? updatedAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli() : -1;
+    }
+
+    // Acepta "7", W/"7" o "*" (cualquier versión)
+    private static Long parseIfMatch(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String value = ifMatch.trim();
+        if (value.startsWith("W/")) {
+            value = value.substring(2);
+        }
+        return Long.parseLong(value.replace("\"", ""));
+    }
+
+    // Listado con proyección de columnas (?fields=); comparte los modos de paginación y total
+    private ResponseEntity<BaseResponse> searchFields(ProductSearchFilter filter, String sort, String fields,
+                                                      int page, int size, String after,
+                                                      boolean withTotal, boolean exactTotal) {
+        Set<ProductField> fieldSet;
+        Sort order;
+        try {
+            fieldSet = ProductField.parse(fields);
+            order = parseSort(sort, after);
+        } catch (IllegalArgumentException e) {
+            return badRequest(e.getMessage());
+        }
+        if (fieldSet == null) {
+            fieldSet = EnumSet.allOf(ProductField.class);
+        }
+        BaseResponse response = after != null
+                ? productService.searchProductFieldsAfter(filter, fieldSet, after, size)
+                : productService.searchProductFields(filter, fieldSet, order, page, size,
+                        TotalMode.of(withTotal, exactTotal));
+        return response.buildResponseEntity();
+    }
+
+    // Sin ?sort= el orden lo decide el servicio; el modo cursor siempre recorre por id
+    private static Sort parseSort(String sort, String after) {
+        if (sort == null || sort.isBlank()) {
+            return Sort.unsorted();
+        }
+        if (after != null) {
+            throw new IllegalArgumentException("La paginación por cursor ordena por id y no admite sort");
+        }
+        return ProductSpecifications.parseSort(sort);
+    }
+
+    private static ResponseEntity<BaseResponse> badRequest(String message) {
+        return BaseResponse.builder()
+                .data(null)
+                .message(message)
+                .success(false)
+                .httpStatus(HttpStatus.BAD_REQUEST)
+                .build()
+                .buildResponseEntity();
+    }
+}
@@ -18,4 +18,6 @@ public class ProductResponse {
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
     private Boolean isActive;
+    // Versión de bloqueo optimista; se expone como ETag
+    private Long version;
 }
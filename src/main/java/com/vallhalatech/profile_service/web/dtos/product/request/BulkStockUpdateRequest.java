@@ -0,0 +1,23 @@
+package com.vallhalatech.profile_service.web.dtos.product.request;
+
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+public class BulkStockUpdateRequest {
+    private List<Item> items;
+
+    // Se identifica por id o por sku; se indica un stock absoluto o un delta
+    @Getter
+    @Setter
+    public static class Item {
+        private Long id;
+        private String sku;
+        private Integer stock;
+        private Integer delta;
+    }
+}
@@ -0,0 +1,13 @@
+package com.vallhalatech.profile_service.web.dtos.product.request;
+
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+public class ProductBatchRequest {
+    private List<Long> ids;
+}
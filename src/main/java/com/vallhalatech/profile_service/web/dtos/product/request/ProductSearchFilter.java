@@ -0,0 +1,41 @@
+package com.vallhalatech.profile_service.web.dtos.product.request;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Filtros opcionales de la búsqueda de productos; los campos nulos no filtran.
+ * Los rangos de precio son inclusivos y los de fecha [desde, hasta).
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductSearchFilter {
+    private String name;
+    private Long categoryId;
+    private String sku;
+    private BigDecimal minPrice;
+    private BigDecimal maxPrice;
+    // true: stock > 0; false: sin stock
+    private Boolean inStock;
+    private Boolean active;
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime createdFrom;
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime createdTo;
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime updatedFrom;
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime updatedTo;
+
+    public static ProductSearchFilter of(String name, Long categoryId) {
+        return ProductSearchFilter.builder().name(name).categoryId(categoryId).build();
+    }
+}
@@ -0,0 +1,11 @@
+package com.vallhalatech.profile_service.web.dtos.product.request;
+
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class StockReservationRequest {
+    private Integer quantity;
+}
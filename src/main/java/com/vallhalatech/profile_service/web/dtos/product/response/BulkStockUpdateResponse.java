@@ -0,0 +1,38 @@
+package com.vallhalatech.profile_service.web.dtos.product.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.List;
+
+@Builder
+@Getter
+public class BulkStockUpdateResponse {
+    private int requested;
+    private int updated;
+    private int failed;
+    private long elapsedMillis;
+    private List<ItemResult> results;
+
+    public enum Status {
+        UPDATED,
+        NOT_FOUND,
+        INSUFFICIENT_STOCK,
+        INVALID,
+        // Producto en modo hot con un delta rechazado pendiente de aplicar
+        BLOCKED
+    }
+
+    @Getter
+    @AllArgsConstructor
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public static class ItemResult {
+        private int index;
+        private Long id;
+        private String sku;
+        private Status status;
+        private String message;
+    }
+}
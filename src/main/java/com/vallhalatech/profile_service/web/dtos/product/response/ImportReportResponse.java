@@ -0,0 +1,27 @@
+package com.vallhalatech.profile_service.web.dtos.product.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.List;
+
+@Builder
+@Getter
+public class ImportReportResponse {
+    private long rowsRead;
+    private long rowsImported;
+    private long rowsFailed;
+    private long elapsedMillis;
+    private long rowsPerSecond;
+    private List<RowError> errors;
+    // true si hubo más errores de los que se informan
+    private boolean errorsTruncated;
+
+    @Getter
+    @AllArgsConstructor
+    public static class RowError {
+        private long line;
+        private String message;
+    }
+}
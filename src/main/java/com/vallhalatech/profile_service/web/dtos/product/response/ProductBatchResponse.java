@@ -0,0 +1,16 @@
+package com.vallhalatech.profile_service.web.dtos.product.response;
+
+import com.vallhalatech.profile_service.web.dtos.category.response.ProductResponse;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.List;
+
+@Builder
+@Getter
+public class ProductBatchResponse {
+    // En el orden de la petición (sin duplicados)
+    private List<ProductResponse> items;
+    // Ids pedidos que no existen
+    private List<Long> missingIds;
+}
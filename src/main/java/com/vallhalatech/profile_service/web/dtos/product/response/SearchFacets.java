@@ -0,0 +1,36 @@
+package com.vallhalatech.profile_service.web.dtos.product.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Builder
+@Getter
+public class SearchFacets {
+    private long total;
+    private long inStock;
+    private long active;
+    private List<CategoryFacet> categories;
+    private BigDecimal priceBucketWidth;
+    private List<PriceBucket> prices;
+
+    @Getter
+    @AllArgsConstructor
+    public static class CategoryFacet {
+        private Long categoryId;
+        private String name;
+        private long count;
+    }
+
+    // Tramo [from, to)
+    @Getter
+    @AllArgsConstructor
+    public static class PriceBucket {
+        private BigDecimal from;
+        private BigDecimal to;
+        private long count;
+    }
+}
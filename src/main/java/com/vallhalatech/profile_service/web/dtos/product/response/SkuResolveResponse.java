@@ -0,0 +1,16 @@
+package com.vallhalatech.profile_service.web.dtos.product.response;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.List;
+import java.util.Map;
+
+@Builder
+@Getter
+public class SkuResolveResponse {
+    // SKU -> id, en el orden de la petición (sin duplicados)
+    private Map<String, Long> ids;
+    // SKU pedidos que no existen
+    private List<String> missingSkus;
+}
@@ -0,0 +1,25 @@
+package com.vallhalatech.profile_service.web.dtos.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.vallhalatech.profile_service.web.dtos.product.response.SearchFacets;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.List;
+
+@Builder(toBuilder = true)
+@Getter
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class PageResponse<T> {
+    private List<T> items;
+    private Integer page;
+    private Integer size;
+    private Boolean hasNext;
+    // Solo se informa con ?withTotal=true; totalEstimated indica si proviene del conteo en caché
+    private Long totalElements;
+    private Boolean totalEstimated;
+    // Token opaco para pedir la siguiente página en modo cursor (?after=)
+    private String nextCursor;
+    // Solo en búsquedas con ?facets=true: recuentos sobre todos los resultados, no solo la página
+    private SearchFacets facets;
+}
@@ -0,0 +1,28 @@
+package com.vallhalatech.profile_service.web.filter;
+
+import com.vallhalatech.profile_service.persistence.routing.RoutingContext;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Delimita la petición para la lectura de las propias escrituras: tras una transacción de
+ * escritura, las lecturas posteriores de la misma petición van a la primaria.
+ */
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        RoutingContext.openRequestScope();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            RoutingContext.closeRequestScope();
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.vallhalatech.profile_service.web.sse;
+
+import com.vallhalatech.profile_service.service.events.ChangeRecord;
+import com.vallhalatech.profile_service.service.events.ChangeStream;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Adapta una conexión SSE al flujo de cambios.
+ * Cada cambio viaja como evento "product.updated", "category.deleted"... con su secuencia
+ * como id, de modo que el navegador reconecta enviando Last-Event-ID.
+ */
+public class SseChangeSink implements ChangeStream.Sink {
+
+    private final SseEmitter emitter;
+
+    public SseChangeSink(SseEmitter emitter) {
+        this.emitter = emitter;
+    }
+
+    @Override
+    public void send(ChangeRecord record) throws IOException {
+        emitter.send(SseEmitter.event()
+                .id(String.valueOf(record.id()))
+                .name(record.eventName())
+                .data(record, MediaType.APPLICATION_JSON));
+    }
+
+    @Override
+    public void lag(long lastDeliveredId, long resumeFromId) throws IOException {
+        // Se perdieron cambios: el cliente debe invalidar todo lo que tenga en caché
+        emitter.send(SseEmitter.event()
+                .name("lag")
+                .data(Map.of("lastDeliveredId", lastDeliveredId, "resumeFromId", resumeFromId),
+                        MediaType.APPLICATION_JSON));
+    }
+
+    @Override
+    public void heartbeat() throws IOException {
+        emitter.send(SseEmitter.event().comment("keepalive"));
+    }
+
+    @Override
+    public void close() {
+        try {
+            emitter.complete();
+        } catch (IllegalStateException e) {
+            // La conexión ya estaba cerrada
+        }
+    }
+}
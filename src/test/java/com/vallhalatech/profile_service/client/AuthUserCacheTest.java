@@ -0,0 +1,163 @@
+package com.vallhalatech.profile_service.client;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.vallhalatech.profile_service.client.dtos.BaseResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AuthUserCacheTest {
+
+    private static final Duration TTL = Duration.ofSeconds(60);
+    private static final Duration STALE = Duration.ofSeconds(120);
+    private static final Duration NEGATIVE_TTL = Duration.ofSeconds(10);
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final AtomicLong now = new AtomicLong();
+    private final Ticker ticker = now::get;
+
+    private StubAuthService authService;
+    private AuthUserCache cache;
+
+    @BeforeEach
+    void setUp() {
+        authService = new StubAuthService();
+        cache = new AuthUserCache(authService, new SimpleMeterRegistry(), 100, TTL, STALE, NEGATIVE_TTL,
+                ticker, Executors.newCachedThreadPool());
+    }
+
+    @AfterEach
+    void tearDown() {
+        cache.shutdown();
+    }
+
+    @Test
+    void concurrentMissesShareOneRemoteCall() throws Exception {
+        CountDownLatch gate = new CountDownLatch(1);
+        authService.behaviour = email -> {
+            await(gate);
+            return found(email);
+        };
+
+        ExecutorService callers = Executors.newFixedThreadPool(8);
+        List<Future<ResponseEntity<BaseResponse>>> results = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            results.add(callers.submit(() -> cache.findUserByEmail("ana@example.com")));
+        }
+        Thread.sleep(100);
+        gate.countDown();
+
+        for (Future<ResponseEntity<BaseResponse>> result : results) {
+            assertThat(result.get(5, TimeUnit.SECONDS).getStatusCode()).isEqualTo(HttpStatus.OK);
+        }
+        callers.shutdown();
+        assertThat(authService.calls.get()).isEqualTo(1);
+    }
+
+    @Test
+    void notFoundIsCachedForTheNegativeTtl() {
+        authService.behaviour = email -> notFound();
+
+        cache.findUserByEmail("nadie@example.com");
+        cache.findUserByEmail("NADIE@example.com");
+        assertThat(authService.calls.get()).isEqualTo(1);
+
+        now.addAndGet(NEGATIVE_TTL.plusSeconds(1).toNanos());
+        cache.findUserByEmail("nadie@example.com");
+        assertThat(authService.calls.get()).isEqualTo(2);
+    }
+
+    @Test
+    void serverErrorsAreNeverCached() {
+        authService.behaviour = email -> ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+
+        assertThat(cache.findUserByEmail("ana@example.com").getStatusCode())
+                .isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+        cache.findUserByEmail("ana@example.com");
+        assertThat(authService.calls.get()).isEqualTo(2);
+    }
+
+    @Test
+    void servesStaleValueWhileAuthServiceIsDown() throws Exception {
+        authService.behaviour = this::found;
+        cache.findUserByEmail("ana@example.com");
+
+        // Pasado el TTL, auth-service cae: se sigue sirviendo el último valor conocido
+        authService.behaviour = email -> {
+            throw new IllegalStateException("auth-service caído");
+        };
+        now.addAndGet(TTL.plusSeconds(1).toNanos());
+        ResponseEntity<BaseResponse> stale = cache.findUserByEmail("ana@example.com");
+        assertThat(stale.getBody().getSuccess()).isTrue();
+
+        waitForCalls(2);
+
+        // Fuera de la ventana de obsolescencia el error llega al llamador
+        now.addAndGet(STALE.toNanos());
+        assertThatThrownBy(() -> cache.findUserByEmail("ana@example.com"))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    private void waitForCalls(int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (authService.calls.get() < expected && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(authService.calls.get()).isEqualTo(expected);
+    }
+
+    private ResponseEntity<BaseResponse> found(String email) {
+        BaseResponse body = objectMapper.convertValue(Map.of(
+                "data", Map.of("id", 1, "email", email, "username", "ana", "name", "Ana"),
+                "message", "Usuario encontrado",
+                "success", true), BaseResponse.class);
+        return ResponseEntity.ok(body);
+    }
+
+    private ResponseEntity<BaseResponse> notFound() {
+        BaseResponse body = objectMapper.convertValue(Map.of(
+                "message", "Usuario no encontrado",
+                "success", false), BaseResponse.class);
+        return ResponseEntity.ok(body);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Stub local de auth-service: cuenta las llamadas y delega en el comportamiento configurado
+    private static class StubAuthService implements AuthServiceClient {
+        private final AtomicInteger calls = new AtomicInteger();
+        private volatile Function<String, ResponseEntity<BaseResponse>> behaviour;
+
+        @Override
+        public ResponseEntity<BaseResponse> findUserByEmail(String email) {
+            calls.incrementAndGet();
+            return behaviour.apply(email);
+        }
+    }
+}
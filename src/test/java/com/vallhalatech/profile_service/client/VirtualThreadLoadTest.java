@@ -0,0 +1,108 @@
+package com.vallhalatech.profile_service.client;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.vallhalatech.profile_service.client.dtos.BaseResponse;
+import com.vallhalatech.profile_service.client.dtos.InfoUserResponse;
+import com.vallhalatech.profile_service.web.controller.ConsumeController;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordingFile;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Carga del modo de hilos virtuales frente a un auth-service lento. Cada petición usa un email
+ * distinto, así que todas bloquean en la llamada remota: deben completarse todas sin que ningún
+ * hilo virtual quede anclado a su portador. La comparación de tiempos con el pool de plataforma
+ * no se comprueba aquí (depende de la máquina).
+ */
+@Slf4j
+class VirtualThreadLoadTest {
+
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final int REQUESTS = 2000;
+    private static final Duration REMOTE_LATENCY = Duration.ofMillis(50);
+    // Mismo umbral por defecto que VirtualThreadPinningMonitor
+    private static final Duration PINNING_THRESHOLD = Duration.ofMillis(20);
+
+    @TempDir
+    Path recordingDir;
+
+    @Test
+    void virtualThreadsCompleteEveryBlockingCallWithoutPinning() throws Exception {
+        Path recordingFile = recordingDir.resolve("pinning.jfr");
+        long elapsedNanos;
+        try (Recording recording = new Recording()) {
+            recording.enable(PINNED_EVENT).withThreshold(PINNING_THRESHOLD).withStackTrace();
+            recording.start();
+            elapsedNanos = runLoad(Executors.newVirtualThreadPerTaskExecutor(),
+                    Executors.newVirtualThreadPerTaskExecutor());
+            recording.stop();
+            recording.dump(recordingFile);
+        }
+        log.info("Hilos virtuales: {} peticiones en {} ms", REQUESTS, TimeUnit.NANOSECONDS.toMillis(elapsedNanos));
+
+        assertThat(RecordingFile.readAllEvents(recordingFile))
+                .extracting(event -> event.getEventType().getName())
+                .doesNotContain(PINNED_EVENT);
+    }
+
+    private long runLoad(ExecutorService requestExecutor, ExecutorService loaderExecutor) throws Exception {
+        AuthUserCache cache = new AuthUserCache(new SlowAuthService(), new SimpleMeterRegistry(), REQUESTS,
+                Duration.ofMinutes(1), Duration.ofMinutes(1), Duration.ofSeconds(10),
+                Ticker.systemTicker(), loaderExecutor);
+        ObjectMapper objectMapper = new ObjectMapper();
+        ConsumeController controller = new ConsumeController(cache, objectMapper);
+
+        try (requestExecutor) {
+            long start = System.nanoTime();
+            List<Future<ResponseEntity<InfoUserResponse>>> results = new ArrayList<>(REQUESTS);
+            for (int i = 0; i < REQUESTS; i++) {
+                String email = "user" + i + "@example.com";
+                results.add(requestExecutor.submit(() -> controller.getUserInfo(email)));
+            }
+            for (Future<ResponseEntity<InfoUserResponse>> result : results) {
+                assertThat(result.get(30, TimeUnit.SECONDS).getStatusCode()).isEqualTo(HttpStatus.OK);
+            }
+            return System.nanoTime() - start;
+        } finally {
+            cache.shutdown();
+        }
+    }
+
+    private static class SlowAuthService implements AuthServiceClient {
+
+        private final ObjectMapper objectMapper = new ObjectMapper();
+
+        @Override
+        public ResponseEntity<BaseResponse> findUserByEmail(String email) {
+            try {
+                Thread.sleep(REMOTE_LATENCY);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            }
+            BaseResponse body = objectMapper.convertValue(Map.of(
+                    "data", Map.of("id", 1, "email", email, "username", "user", "name", "Usuario"),
+                    "message", "Usuario encontrado",
+                    "success", true), BaseResponse.class);
+            return ResponseEntity.ok(body);
+        }
+    }
+}
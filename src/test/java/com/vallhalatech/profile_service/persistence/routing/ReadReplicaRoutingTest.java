@@ -0,0 +1,201 @@
+package com.vallhalatech.profile_service.persistence.routing;
+
+import com.vallhalatech.profile_service.persistence.repositories.IProductRepository;
+import com.vallhalatech.profile_service.service.ICategoryService;
+import com.vallhalatech.profile_service.service.IProductService;
+import com.vallhalatech.profile_service.service.cache.CategoryDictionary;
+import com.vallhalatech.profile_service.utils.pagination.TotalMode;
+import com.vallhalatech.profile_service.web.dtos.category.request.CategoryRequest;
+import com.vallhalatech.profile_service.web.dtos.category.response.CategoryResponse;
+import com.vallhalatech.profile_service.web.dtos.product.request.ProductRequest;
+import com.vallhalatech.profile_service.web.dtos.response.BaseResponse;
+import com.vallhalatech.profile_service.web.filter.ReadYourWritesFilter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Dos H2 en memoria hacen de primaria y réplica. La "replicación" es una copia completa
+ * (SCRIPT en la primaria y ejecución en la réplica), así el test decide cuándo la réplica
+ * está al día y cuándo se queda atrás.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:routing_primary;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "products.datasource.routing.enabled=true",
+        "products.datasource.routing.max-lag-ms=200",
+        // Los sondeos los lanza el test
+        "products.datasource.routing.lag-check-interval-ms=3600000",
+        "products.datasource.routing.replicas[0].name=replica-a",
+        "products.datasource.routing.replicas[0].url=" + ReadReplicaRoutingTest.REPLICA_URL,
+        "products.datasource.routing.replicas[0].username=sa",
+        "products.datasource.routing.replicas[0].password="
+})
+class ReadReplicaRoutingTest {
+
+    static final String REPLICA_URL = "jdbc:h2:mem:routing_replica;MODE=MySQL;DB_CLOSE_DELAY=-1";
+
+    @Autowired
+    private IProductService productService;
+
+    @Autowired
+    private ICategoryService categoryService;
+
+    @Autowired
+    private IProductRepository productRepository;
+
+    @Autowired
+    private ReplicaSelector replicaSelector;
+
+    @Autowired
+    @Qualifier("primaryDataSource")
+    private DataSource primaryDataSource;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private CategoryDictionary categoryDictionary;
+
+    private Long categoryId;
+
+    @BeforeEach
+    void setUp() {
+        categoryId = createCategory();
+        createProduct();
+        catchUpReplica();
+    }
+
+    @Test
+    void readOnlyTransactionsAreServedByTheReplica() {
+        double replicaReads = readsServedBy("replica");
+        createProduct();
+
+        // La réplica aún no tiene el último producto; la escritura fue a la primaria
+        assertThat(productRepository.count()).isEqualTo(primaryCount() - 1);
+        assertThat(replicaCount()).isEqualTo(primaryCount() - 1);
+        assertThat(readsServedBy("replica")).isGreaterThan(replicaReads);
+    }
+
+    @Test
+    void laggingReplicaIsSkipped() throws InterruptedException {
+        createProduct();
+        Thread.sleep(300);
+        replicaSelector.probe();
+
+        assertThat(replicaSelector.replicas().get(0).isAvailable()).isFalse();
+        assertThat(replicaSelector.replicas().get(0).lagMillis()).isGreaterThan(200);
+        assertThat(productRepository.count()).isEqualTo(primaryCount());
+
+        catchUpReplica();
+        assertThat(productRepository.count()).isEqualTo(primaryCount());
+    }
+
+    @Test
+    void readsAfterAWriteInTheSameRequestUseThePrimary() throws Exception {
+        AtomicLong beforeWrite = new AtomicLong();
+        AtomicLong afterWrite = new AtomicLong();
+
+        new ReadYourWritesFilter().doFilter(new MockHttpServletRequest(), new MockHttpServletResponse(),
+                (request, response) -> {
+                    beforeWrite.set(productRepository.count());
+                    createProduct();
+                    afterWrite.set(productRepository.count());
+                });
+
+        assertThat(beforeWrite.get()).isEqualTo(replicaCount());
+        assertThat(afterWrite.get()).isEqualTo(primaryCount());
+        // Fuera de la petición se vuelve a la réplica
+        assertThat(productRepository.count()).isEqualTo(primaryCount() - 1);
+    }
+
+    @Test
+    void primaryScopeOverridesTheReplica() {
+        createProduct();
+
+        assertThat(RoutingContext.onPrimary(() -> productRepository.count())).isEqualTo(primaryCount());
+        assertThat(productRepository.count()).isEqualTo(primaryCount() - 1);
+    }
+
+    @Test
+    void primaryScopeInsideAReplicaTransactionReadsThePrimary() {
+        // Categoría que la réplica y el diccionario aún no conocen (p. ej. creada por otra instancia)
+        String name = "cat-" + UUID.randomUUID().toString().substring(0, 8);
+        JdbcTemplate primary = new JdbcTemplate(primaryDataSource);
+        primary.update("INSERT INTO category (name, description) VALUES (?, ?)", name, "descripcion");
+        Long newCategoryId = primary.queryForObject("SELECT id FROM category WHERE name = ?", Long.class, name);
+
+        // El servicio abre una transacción de solo lectura en la réplica; la consulta del diccionario
+        // dentro de ella debe ir a la primaria y no unirse a la transacción de la réplica
+        BaseResponse response = productService.getProductsByCategory(newCategoryId, 0, 10, TotalMode.NONE);
+
+        assertThat(response.getHttpStatus()).isEqualTo(HttpStatus.OK);
+        assertThat(categoryDictionary.getResponse(newCategoryId)).isPresent();
+    }
+
+    private void catchUpReplica() {
+        // Latido, copia y nuevo latido: la réplica solo desconoce el latido recién escrito
+        replicaSelector.probe();
+        replicate();
+        replicaSelector.probe();
+        assertThat(replicaSelector.replicas().get(0).isAvailable()).isTrue();
+    }
+
+    private void replicate() {
+        JdbcTemplate replica = replicaJdbc();
+        List<String> script = new JdbcTemplate(primaryDataSource).queryForList("SCRIPT", String.class);
+        replica.execute("DROP ALL OBJECTS");
+        script.forEach(replica::execute);
+    }
+
+    private long primaryCount() {
+        return new JdbcTemplate(primaryDataSource).queryForObject("SELECT COUNT(*) FROM product", Long.class);
+    }
+
+    private long replicaCount() {
+        return replicaJdbc().queryForObject("SELECT COUNT(*) FROM product", Long.class);
+    }
+
+    private JdbcTemplate replicaJdbc() {
+        return new JdbcTemplate(new DriverManagerDataSource(REPLICA_URL, "sa", ""));
+    }
+
+    private double readsServedBy(String target) {
+        return meterRegistry.get("products.datasource.reads").tag("target", target).counter().count();
+    }
+
+    private Long createCategory() {
+        CategoryRequest request = new CategoryRequest();
+        request.setName("cat-" + UUID.randomUUID().toString().substring(0, 8));
+        request.setDescription("descripcion");
+        BaseResponse response = categoryService.addCategory(request);
+        return ((CategoryResponse) response.getData()).getId();
+    }
+
+    private void createProduct() {
+        ProductRequest request = new ProductRequest();
+        request.setName("producto");
+        request.setDescription("descripcion");
+        request.setImageUrl("http://img");
+        request.setPrice(BigDecimal.TEN);
+        request.setCategoryId(categoryId);
+        request.setStock(5);
+        request.setSku(UUID.randomUUID().toString().substring(0, 20));
+        assertThat(productService.addProduct(request).getHttpStatus()).isEqualTo(HttpStatus.CREATED);
+    }
+}
@@ -0,0 +1,135 @@
+package com.vallhalatech.profile_service.service.cache;
+
+import com.vallhalatech.profile_service.persistence.entities.Category;
+import com.vallhalatech.profile_service.persistence.entities.Product;
+import com.vallhalatech.profile_service.persistence.repositories.ICategoryRepository;
+import com.vallhalatech.profile_service.persistence.repositories.IProductRepository;
+import com.vallhalatech.profile_service.service.IProductService;
+import com.vallhalatech.profile_service.web.dtos.category.response.ProductResponse;
+import com.vallhalatech.profile_service.web.dtos.product.request.BulkStockUpdateRequest;
+import com.vallhalatech.profile_service.web.dtos.product.request.ProductRequest;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class SecondLevelCacheTest {
+
+    @Autowired
+    private IProductService productService;
+
+    @Autowired
+    private IProductRepository productRepository;
+
+    @Autowired
+    private ICategoryRepository categoryRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private Long categoryId;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        entityManagerFactory.getCache().evictAll();
+
+        Category category = new Category();
+        category.setName("cat-" + UUID.randomUUID().toString().substring(0, 8));
+        categoryId = categoryRepository.save(category).getId();
+    }
+
+    @Test
+    void repeatedEntityReadsAreServedWithoutStatements() {
+        Long id = createProduct(5);
+        productRepository.findById(id);
+
+        long statements = statistics.getPrepareStatementCount();
+        Product product = productRepository.findById(id).orElseThrow();
+        categoryRepository.findById(categoryId).orElseThrow();
+
+        assertThat(product.getCategory().getId()).isEqualTo(categoryId);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(statements);
+    }
+
+    @Test
+    void repeatedCategoryPageIsServedFromTheQueryCache() {
+        createProduct(1);
+        createProduct(2);
+        productRepository.findByCategoryId(categoryId, PageRequest.of(0, 10));
+
+        long statements = statistics.getPrepareStatementCount();
+        long queryHits = statistics.getQueryCacheHitCount();
+        List<Product> page = productRepository.findByCategoryId(categoryId, PageRequest.of(0, 10)).getContent();
+
+        assertThat(page).hasSize(2);
+        assertThat(statistics.getQueryCacheHitCount()).isEqualTo(queryHits + 1);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(statements);
+    }
+
+    @Test
+    void modifyingQueriesAndJdbcBatchesInvalidateCachedEntities() {
+        Long id = createProduct(10);
+        productRepository.findById(id);
+
+        productService.reserveStock(id, 3);
+        assertThat(productRepository.findById(id).orElseThrow().getStock()).isEqualTo(7);
+
+        BulkStockUpdateRequest.Item item = new BulkStockUpdateRequest.Item();
+        item.setId(id);
+        item.setDelta(5);
+        productService.updateStockBulk(List.of(item));
+        assertThat(productRepository.findById(id).orElseThrow().getStock()).isEqualTo(12);
+        assertThat(((ProductResponse) productService.getProductById(id).getData()).getStock()).isEqualTo(12);
+    }
+
+    @Test
+    void reservationOnlyEvictsTheReservedProduct() {
+        Long reserved = createProduct(10);
+        Long other = createProduct(10);
+        productRepository.findById(reserved);
+        productRepository.findById(other);
+        productRepository.findByCategoryId(categoryId, PageRequest.of(0, 10));
+
+        productService.reserveStock(reserved, 1);
+        productService.releaseStock(reserved, 3);
+
+        long statements = statistics.getPrepareStatementCount();
+        productRepository.findById(other).orElseThrow();
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(statements);
+
+        // La consulta cacheada sigue valiendo; solo el producto reservado se vuelve a leer
+        long queryHits = statistics.getQueryCacheHitCount();
+        List<Product> page = productRepository.findByCategoryId(categoryId, PageRequest.of(0, 10)).getContent();
+        assertThat(statistics.getQueryCacheHitCount()).isEqualTo(queryHits + 1);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(statements + 1);
+        assertThat(page).filteredOn(product -> product.getId().equals(reserved))
+                .singleElement()
+                .extracting(Product::getStock)
+                .isEqualTo(12);
+    }
+
+    private Long createProduct(int stock) {
+        ProductRequest request = new ProductRequest();
+        request.setName("producto");
+        request.setDescription("descripcion");
+        request.setImageUrl("http://img");
+        request.setPrice(BigDecimal.TEN);
+        request.setCategoryId(categoryId);
+        request.setStock(stock);
+        request.setSku(UUID.randomUUID().toString().substring(0, 20));
+        return ((ProductResponse) productService.addProduct(request).getData()).getId();
+    }
+}
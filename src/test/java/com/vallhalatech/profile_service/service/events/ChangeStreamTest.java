@@ -0,0 +1,160 @@
+package com.vallhalatech.profile_service.service.events;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ChangeStreamTest {
+
+    private ChangeStream stream;
+
+    @AfterEach
+    void tearDown() {
+        stream.shutdown();
+    }
+
+    @Test
+    void slowSubscriberCatchesUpFromRingWithoutGaps() throws Exception {
+        stream = new ChangeStream(new SimpleMeterRegistry(), 64, 4, 1000, 50);
+        RecordingSink sink = new RecordingSink(true);
+        stream.subscribe(null, sink);
+
+        // El primer envío queda bloqueado y el resto desborda la cola del suscriptor
+        for (long i = 1; i <= 20; i++) {
+            stream.publish("product", "UPDATED", i);
+        }
+        sink.gate.countDown();
+
+        await(() -> sink.records.size() == 20);
+        assertThat(sink.lags).isEmpty();
+        assertThat(sink.records).extracting(ChangeRecord::entityId)
+                .containsExactlyElementsOf(range(1, 20));
+        assertConsecutive(sink.records);
+    }
+
+    @Test
+    void signalsLagWhenRingNoLongerHoldsMissedEvents() throws Exception {
+        stream = new ChangeStream(new SimpleMeterRegistry(), 8, 2, 1000, 50);
+        RecordingSink sink = new RecordingSink(true);
+        stream.subscribe(null, sink);
+
+        for (long i = 1; i <= 30; i++) {
+            stream.publish("product", "STOCK_CHANGED", i);
+        }
+        sink.gate.countDown();
+
+        await(() -> !sink.records.isEmpty() && sink.records.get(sink.records.size() - 1).entityId() == 30L);
+        assertThat(sink.lags).hasSize(1);
+        // Tras la señal llegan los 8 últimos cambios que siguen en el anillo
+        assertThat(sink.records.subList(sink.records.size() - 8, sink.records.size()))
+                .extracting(ChangeRecord::entityId)
+                .containsExactlyElementsOf(range(23, 30));
+    }
+
+    @Test
+    void resumesAfterLastEventId() throws Exception {
+        stream = new ChangeStream(new SimpleMeterRegistry(), 64, 16, 1000, 50);
+        RecordingSink first = new RecordingSink(false);
+        stream.subscribe(null, first);
+        for (long i = 1; i <= 5; i++) {
+            stream.publish("category", "UPDATED", i);
+        }
+        await(() -> first.records.size() == 5);
+
+        RecordingSink resumed = new RecordingSink(false);
+        stream.subscribe(first.records.get(1).id(), resumed);
+
+        await(() -> resumed.records.size() == 3);
+        assertThat(resumed.lags).isEmpty();
+        assertThat(resumed.records).extracting(ChangeRecord::eventName).containsOnly("category.updated");
+        assertThat(resumed.records).extracting(ChangeRecord::entityId).containsExactly(3L, 4L, 5L);
+    }
+
+    @Test
+    void unknownLastEventIdFromPreviousRunSignalsLag() throws Exception {
+        stream = new ChangeStream(new SimpleMeterRegistry(), 64, 16, 1000, 50);
+        RecordingSink sink = new RecordingSink(false);
+        stream.subscribe(1L, sink);
+
+        await(() -> sink.lags.size() == 1);
+        stream.publish("product", "CREATED", 7L);
+        await(() -> sink.records.size() == 1);
+        assertThat(sink.records.get(0).entityId()).isEqualTo(7L);
+    }
+
+    @Test
+    void closingSubscriptionStopsDelivery() throws Exception {
+        stream = new ChangeStream(new SimpleMeterRegistry(), 64, 16, 1000, 50);
+        RecordingSink sink = new RecordingSink(false);
+        ChangeStream.Subscription subscription = stream.subscribe(null, sink);
+
+        subscription.close();
+
+        assertThat(stream.subscriberCount()).isZero();
+        assertThat(sink.closed.await(1, TimeUnit.SECONDS)).isTrue();
+    }
+
+    private static List<Long> range(long from, long to) {
+        return LongStream.rangeClosed(from, to).boxed().toList();
+    }
+
+    private static void assertConsecutive(List<ChangeRecord> records) {
+        for (int i = 1; i < records.size(); i++) {
+            assertThat(records.get(i).id()).isEqualTo(records.get(i - 1).id() + 1);
+        }
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime()).as("tiempo de espera agotado").isLessThan(deadline);
+            Thread.sleep(10);
+        }
+    }
+
+    private static final class RecordingSink implements ChangeStream.Sink {
+
+        private final List<ChangeRecord> records = new CopyOnWriteArrayList<>();
+        private final List<long[]> lags = new CopyOnWriteArrayList<>();
+        private final CountDownLatch gate;
+        private final CountDownLatch closed = new CountDownLatch(1);
+
+        private RecordingSink(boolean blockFirstSend) {
+            this.gate = new CountDownLatch(blockFirstSend ? 1 : 0);
+        }
+
+        @Override
+        public void send(ChangeRecord record) {
+            try {
+                gate.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            records.add(record);
+        }
+
+        @Override
+        public void lag(long lastDeliveredId, long resumeFromId) {
+            lags.add(new long[]{lastDeliveredId, resumeFromId});
+        }
+
+        @Override
+        public void heartbeat() {
+        }
+
+        @Override
+        public void close() {
+            closed.countDown();
+        }
+    }
+}
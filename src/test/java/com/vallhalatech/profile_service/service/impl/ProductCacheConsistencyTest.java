@@ -0,0 +1,141 @@
+package com.vallhalatech.profile_service.service.impl;
+
+import com.vallhalatech.profile_service.persistence.entities.Category;
+import com.vallhalatech.profile_service.persistence.repositories.ICategoryRepository;
+import com.vallhalatech.profile_service.service.ICategoryService;
+import com.vallhalatech.profile_service.service.IProductService;
+import com.vallhalatech.profile_service.web.dtos.category.request.CategoryRequest;
+import com.vallhalatech.profile_service.web.dtos.category.response.ProductResponse;
+import com.vallhalatech.profile_service.web.dtos.product.request.ProductRequest;
+import com.vallhalatech.profile_service.web.dtos.response.BaseResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class ProductCacheConsistencyTest {
+
+    @Autowired
+    private IProductService productService;
+
+    @Autowired
+    private ICategoryService categoryService;
+
+    @Autowired
+    private ICategoryRepository categoryRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Long categoryId;
+
+    @BeforeEach
+    void setUp() {
+        Category category = new Category();
+        category.setName("cat-" + UUID.randomUUID().toString().substring(0, 8));
+        categoryId = categoryRepository.save(category).getId();
+    }
+
+    @Test
+    void readsReflectEveryCommittedWrite() {
+        Long id = createProduct(10);
+        assertThat(read(id).getStock()).isEqualTo(10);
+
+        productService.updateStock(id, 7);
+        assertThat(read(id).getStock()).isEqualTo(7);
+
+        productService.reserveStock(id, 2);
+        assertThat(read(id).getStock()).isEqualTo(5);
+
+        productService.releaseStock(id, 1);
+        assertThat(read(id).getStock()).isEqualTo(6);
+
+        ProductRequest update = request(6);
+        update.setName("renombrado");
+        productService.updateProduct(id, update);
+        assertThat(read(id).getName()).isEqualTo("renombrado");
+
+        productService.deleteProduct(id);
+        assertThat(productService.getProductById(id).getHttpStatus()).isEqualTo(HttpStatus.NOT_FOUND);
+    }
+
+    @Test
+    void categoryRenameIsVisibleInCachedProducts() {
+        Long id = createProduct(1);
+        String sku = read(id).getSku();
+        String originalName = read(id).getCategory().getName();
+        productService.getProductBySku(sku);
+
+        CategoryRequest rename = new CategoryRequest();
+        rename.setName("renombrada-" + UUID.randomUUID().toString().substring(0, 8));
+        rename.setDescription("descripcion");
+        assertThat(categoryService.updateCategory(categoryId, rename).getHttpStatus()).isEqualTo(HttpStatus.OK);
+
+        assertThat(rename.getName()).isNotEqualTo(originalName);
+        assertThat(read(id).getCategory().getName()).isEqualTo(rename.getName());
+        ProductResponse bySku = (ProductResponse) productService.getProductBySku(sku).getData();
+        assertThat(bySku.getCategory().getName()).isEqualTo(rename.getName());
+    }
+
+    @Test
+    void concurrentReadersNeverObserveStaleStockAfterWriteReturns() throws Exception {
+        Long id = createProduct(0);
+        AtomicBoolean running = new AtomicBoolean(true);
+        ExecutorService readers = Executors.newFixedThreadPool(4);
+        for (int i = 0; i < 4; i++) {
+            readers.submit(() -> {
+                while (running.get()) {
+                    productService.getProductById(id);
+                }
+            });
+        }
+
+        try {
+            for (int stock = 1; stock <= 200; stock++) {
+                productService.updateStock(id, stock);
+                assertThat(read(id).getStock()).isEqualTo(stock);
+            }
+        } finally {
+            running.set(false);
+            readers.shutdown();
+            readers.awaitTermination(10, TimeUnit.SECONDS);
+        }
+
+        assertThat(meterRegistry.find("cache.gets").tag("cache", "products").tag("result", "hit").functionCounter())
+                .isNotNull();
+    }
+
+    private ProductResponse read(Long id) {
+        BaseResponse response = productService.getProductById(id);
+        return (ProductResponse) response.getData();
+    }
+
+    private Long createProduct(int stock) {
+        BaseResponse response = productService.addProduct(request(stock));
+        return ((ProductResponse) response.getData()).getId();
+    }
+
+    private ProductRequest request(int stock) {
+        ProductRequest request = new ProductRequest();
+        request.setName("producto");
+        request.setDescription("descripcion");
+        request.setImageUrl("http://img");
+        request.setPrice(BigDecimal.TEN);
+        request.setCategoryId(categoryId);
+        request.setStock(stock);
+        request.setSku(UUID.randomUUID().toString().substring(0, 20));
+        return request;
+    }
+}
@@ -0,0 +1,133 @@
+package com.vallhalatech.profile_service.service.impl;
+
+import com.vallhalatech.profile_service.persistence.entities.Category;
+import com.vallhalatech.profile_service.persistence.entities.Product;
+import com.vallhalatech.profile_service.persistence.repositories.ICategoryRepository;
+import com.vallhalatech.profile_service.persistence.repositories.IProductRepository;
+import com.vallhalatech.profile_service.persistence.specifications.ProductSpecifications;
+import com.vallhalatech.profile_service.service.IProductService;
+import com.vallhalatech.profile_service.utils.pagination.TotalMode;
+import com.vallhalatech.profile_service.web.dtos.category.response.ProductResponse;
+import com.vallhalatech.profile_service.web.dtos.product.request.ProductSearchFilter;
+import com.vallhalatech.profile_service.web.dtos.response.BaseResponse;
+import com.vallhalatech.profile_service.web.dtos.response.PageResponse;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpStatus;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+class ProductDynamicSearchTest {
+
+    @Autowired
+    private IProductService productService;
+
+    @Autowired
+    private IProductRepository productRepository;
+
+    @Autowired
+    private ICategoryRepository categoryRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private String term;
+    private Category category;
+
+    @BeforeEach
+    void setUp() {
+        term = "dyn" + UUID.randomUUID().toString().substring(0, 8);
+        Category newCategory = new Category();
+        newCategory.setName("cat-" + UUID.randomUUID().toString().substring(0, 8));
+        category = categoryRepository.save(newCategory);
+
+        createProduct("a", "15.00", 4, true);
+        createProduct("b", "30.00", 0, true);
+        createProduct("c", "45.00", 2, true);
+        createProduct("d", "60.00", 9, false);
+        createProduct("e", "30.00", 7, true);
+    }
+
+    @Test
+    void combinesFiltersAndMultiFieldSortInOneStatement() {
+        ProductSearchFilter filter = ProductSearchFilter.builder()
+                .name(term)
+                .minPrice(new BigDecimal("20"))
+                .maxPrice(new BigDecimal("60"))
+                .inStock(true)
+                .active(true)
+                .build();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        BaseResponse response = productService.searchProducts(filter, ProductSpecifications.parseSort("-price,name"),
+                0, 10, TotalMode.NONE, false, null);
+
+        assertThat(response.getHttpStatus()).isEqualTo(HttpStatus.OK);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(items(response)).extracting(ProductResponse::getName)
+                .containsExactly(term + " c", term + " e");
+    }
+
+    @Test
+    void pagesWithSortAndExactTotal() {
+        ProductSearchFilter filter = ProductSearchFilter.builder().name(term).active(true).build();
+        Sort sort = ProductSpecifications.parseSort("price,-name");
+
+        BaseResponse first = productService.searchProducts(filter, sort, 0, 2, TotalMode.EXACT, false, null);
+        BaseResponse second = productService.searchProducts(filter, sort, 1, 2, TotalMode.EXACT, false, null);
+
+        PageResponse<?> firstPage = (PageResponse<?>) first.getData();
+        assertThat(firstPage.getHasNext()).isTrue();
+        assertThat(firstPage.getTotalElements()).isEqualTo(4);
+        assertThat(items(first)).extracting(ProductResponse::getName)
+                .containsExactly(term + " a", term + " e");
+        assertThat(items(second)).extracting(ProductResponse::getName)
+                .containsExactly(term + " b", term + " c");
+    }
+
+    @Test
+    void cursorModeAppliesFilters() {
+        ProductSearchFilter filter = ProductSearchFilter.builder().name(term).inStock(false).build();
+
+        BaseResponse response = productService.searchProductsAfter(filter, "", 10, false, null);
+
+        assertThat(items(response)).extracting(ProductResponse::getName).containsExactly(term + " b");
+    }
+
+    @Test
+    void rejectsUnknownSortField() {
+        assertThatThrownBy(() -> ProductSpecifications.parseSort("price,description"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<ProductResponse> items(BaseResponse response) {
+        return ((PageResponse<ProductResponse>) response.getData()).getItems();
+    }
+
+    private void createProduct(String suffix, String price, int stock, boolean active) {
+        Product product = new Product();
+        product.setName(term + " " + suffix);
+        product.setDescription("descripcion");
+        product.setImageUrl("http://img");
+        product.setPrice(new BigDecimal(price));
+        product.setCategory(category);
+        product.setStock(stock);
+        product.setSku(UUID.randomUUID().toString().substring(0, 20));
+        product.setIsActive(active);
+        productRepository.save(product);
+    }
+}
@@ -0,0 +1,142 @@
+package com.vallhalatech.profile_service.service.impl;
+
+import com.vallhalatech.profile_service.persistence.entities.Category;
+import com.vallhalatech.profile_service.persistence.entities.Product;
+import com.vallhalatech.profile_service.persistence.repositories.ICategoryRepository;
+import com.vallhalatech.profile_service.persistence.repositories.IProductRepository;
+import com.vallhalatech.profile_service.service.IProductService;
+import com.vallhalatech.profile_service.service.cache.CategoryDictionary;
+import com.vallhalatech.profile_service.service.search.ProductSearchIndex;
+import com.vallhalatech.profile_service.utils.pagination.TotalMode;
+import com.vallhalatech.profile_service.web.dtos.product.request.ProductSearchFilter;
+import com.vallhalatech.profile_service.web.dtos.product.response.SearchFacets;
+import com.vallhalatech.profile_service.web.dtos.response.BaseResponse;
+import com.vallhalatech.profile_service.web.dtos.response.PageResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpStatus;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+@SpringBootTest
+class ProductFacetsTest {
+
+    @Autowired
+    private IProductService productService;
+
+    @Autowired
+    private IProductRepository productRepository;
+
+    @Autowired
+    private ICategoryRepository categoryRepository;
+
+    @Autowired
+    private CategoryDictionary categoryDictionary;
+
+    @Autowired
+    private ProductSearchIndex productSearchIndex;
+
+    private String term;
+    private Category shirts;
+    private Category shoes;
+
+    @BeforeEach
+    void setUp() {
+        term = "faceta" + UUID.randomUUID().toString().substring(0, 8);
+        shirts = createCategory();
+        shoes = createCategory();
+        categoryDictionary.reload();
+
+        createProduct(shirts, "10.00", 5, true);
+        createProduct(shirts, "45.50", 0, true);
+        createProduct(shirts, "60.00", 3, false);
+        createProduct(shoes, "120.00", 1, true);
+        // Los productos se guardan sin pasar por el servicio: el índice no recibe eventos
+        productSearchIndex.rebuild();
+    }
+
+    @Test
+    void facetsCoverWholeSearchNotJustPage() {
+        BaseResponse response = productService.searchProducts(ProductSearchFilter.of(term, null), Sort.unsorted(),
+                0, 1, TotalMode.NONE, true, new BigDecimal("50"));
+
+        assertThat(response.getHttpStatus()).isEqualTo(HttpStatus.OK);
+        PageResponse<?> page = (PageResponse<?>) response.getData();
+        assertThat(page.getItems()).hasSize(1);
+
+        SearchFacets facets = page.getFacets();
+        assertThat(facets.getTotal()).isEqualTo(4);
+        assertThat(facets.getInStock()).isEqualTo(3);
+        assertThat(facets.getActive()).isEqualTo(3);
+        assertThat(facets.getCategories())
+                .extracting(SearchFacets.CategoryFacet::getCategoryId, SearchFacets.CategoryFacet::getName,
+                        SearchFacets.CategoryFacet::getCount)
+                .containsExactly(
+                        tuple(shirts.getId(), shirts.getName(), 3L),
+                        tuple(shoes.getId(), shoes.getName(), 1L));
+        assertThat(facets.getPrices())
+                .extracting(bucket -> bucket.getFrom().intValue(), SearchFacets.PriceBucket::getCount)
+                .containsExactly(tuple(0, 2L), tuple(50, 1L), tuple(100, 1L));
+    }
+
+    @Test
+    void facetsRespectCategoryFilterAndAreOmittedByDefault() {
+        BaseResponse filtered = productService.searchProducts(ProductSearchFilter.of(term, shoes.getId()),
+                Sort.unsorted(), 0, 10, TotalMode.NONE, true, null);
+        SearchFacets facets = ((PageResponse<?>) filtered.getData()).getFacets();
+        assertThat(facets.getTotal()).isEqualTo(1);
+        assertThat(facets.getCategories()).extracting(SearchFacets.CategoryFacet::getCategoryId)
+                .containsExactly(shoes.getId());
+
+        BaseResponse plain = productService.searchProducts(ProductSearchFilter.of(term, null), Sort.unsorted(),
+                0, 10, TotalMode.NONE, false, null);
+        assertThat(((PageResponse<?>) plain.getData()).getFacets()).isNull();
+
+        BaseResponse invalid = productService.searchProducts(ProductSearchFilter.of(term, null), Sort.unsorted(),
+                0, 10, TotalMode.NONE, true, BigDecimal.ZERO);
+        assertThat(invalid.getHttpStatus()).isEqualTo(HttpStatus.BAD_REQUEST);
+    }
+
+    @Test
+    void priceBucketWidthIsRejectedWhenItWouldProduceTooManyBuckets() {
+        // Precios entre 10 y 120: con ancho 0.01 saldrían 11001 tramos, por encima del máximo (1000)
+        BaseResponse tooNarrow = productService.searchProducts(ProductSearchFilter.of(term, null), Sort.unsorted(),
+                0, 10, TotalMode.NONE, true, new BigDecimal("0.01"));
+        assertThat(tooNarrow.getHttpStatus()).isEqualTo(HttpStatus.BAD_REQUEST);
+
+        BaseResponse narrow = productService.searchProducts(ProductSearchFilter.of(term, null), Sort.unsorted(),
+                0, 10, TotalMode.NONE, true, BigDecimal.ONE);
+        assertThat(narrow.getHttpStatus()).isEqualTo(HttpStatus.OK);
+        assertThat(((PageResponse<?>) narrow.getData()).getFacets().getPrices()).hasSize(4);
+
+        BaseResponse cursor = productService.searchProductsAfter(ProductSearchFilter.of(term, null), null, 10,
+                true, new BigDecimal("0.01"));
+        assertThat(cursor.getHttpStatus()).isEqualTo(HttpStatus.BAD_REQUEST);
+    }
+
+    private Category createCategory() {
+        Category category = new Category();
+        category.setName("cat-" + UUID.randomUUID().toString().substring(0, 8));
+        return categoryRepository.save(category);
+    }
+
+    private void createProduct(Category category, String price, int stock, boolean active) {
+        Product product = new Product();
+        product.setName(term + " " + UUID.randomUUID().toString().substring(0, 4));
+        product.setDescription("descripcion");
+        product.setImageUrl("http://img");
+        product.setPrice(new BigDecimal(price));
+        product.setCategory(category);
+        product.setStock(stock);
+        product.setSku(UUID.randomUUID().toString().substring(0, 20));
+        product.setIsActive(active);
+        productRepository.save(product);
+    }
+}
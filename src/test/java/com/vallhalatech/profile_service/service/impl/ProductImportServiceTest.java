@@ -0,0 +1,110 @@
+package com.vallhalatech.profile_service.service.impl;
+
+import com.vallhalatech.profile_service.persistence.entities.Category;
+import com.vallhalatech.profile_service.persistence.repositories.ICategoryRepository;
+import com.vallhalatech.profile_service.service.IProductImportService;
+import com.vallhalatech.profile_service.service.IProductService;
+import com.vallhalatech.profile_service.service.cache.CategoryDictionary;
+import com.vallhalatech.profile_service.utils.transfer.CsvCodec;
+import com.vallhalatech.profile_service.utils.transfer.TransferFormat;
+import com.vallhalatech.profile_service.web.dtos.category.response.ProductResponse;
+import com.vallhalatech.profile_service.web.dtos.product.response.ImportReportResponse;
+import com.vallhalatech.profile_service.web.dtos.response.BaseResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class ProductImportServiceTest {
+
+    // Mismas columnas que escribe la exportación
+    private static final String CSV_HEADER = "id,name,description,imageUrl,price,categoryId,categoryName,stock,sku,"
+            + "createdAt,updatedAt,isActive";
+
+    @Autowired
+    private IProductImportService productImportService;
+
+    @Autowired
+    private IProductService productService;
+
+    @Autowired
+    private ICategoryRepository categoryRepository;
+
+    @Autowired
+    private CategoryDictionary categoryDictionary;
+
+    private Category category;
+
+    @BeforeEach
+    void setUp() {
+        Category newCategory = new Category();
+        newCategory.setName("cat-" + UUID.randomUUID().toString().substring(0, 8));
+        category = categoryRepository.save(newCategory);
+        categoryDictionary.reload();
+    }
+
+    @Test
+    void exportedMultiLineDescriptionIsImportedAsOneRow() {
+        String multiLineSku = newSku();
+        String plainSku = newSku();
+        String description = "primera línea\r\nsegunda, con \"comillas\"\ntercera";
+        String csv = CSV_HEADER + "\n"
+                + row(multiLineSku, description) + "\n"
+                + row(plainSku, "descripcion") + "\n";
+
+        BaseResponse response = productImportService.importProducts(
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), TransferFormat.CSV);
+
+        assertThat(response.getHttpStatus()).isEqualTo(HttpStatus.OK);
+        ImportReportResponse report = (ImportReportResponse) response.getData();
+        assertThat(report.getRowsRead()).isEqualTo(2);
+        assertThat(report.getRowsImported()).isEqualTo(2);
+        assertThat(report.getRowsFailed()).isZero();
+
+        // BufferedReader.readLine no conserva el tipo de salto de línea: dentro del campo queda \n
+        assertThat(read(multiLineSku).getDescription()).isEqualTo(description.replace("\r\n", "\n"));
+        assertThat(read(plainSku).getDescription()).isEqualTo("descripcion");
+    }
+
+    @Test
+    void unclosedQuoteIsReportedOnTheLineWhereTheRecordStarts() {
+        String csv = CSV_HEADER + "\n"
+                + row(newSku(), "descripcion") + "\n"
+                + ",producto,\"sin cerrar,http://img,10,1,,5,sku,,,true\n";
+
+        BaseResponse response = productImportService.importProducts(
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), TransferFormat.CSV);
+
+        ImportReportResponse report = (ImportReportResponse) response.getData();
+        assertThat(report.getRowsImported()).isEqualTo(1);
+        assertThat(report.getRowsFailed()).isEqualTo(1);
+        assertThat(report.getErrors()).extracting(ImportReportResponse.RowError::getLine).containsExactly(3L);
+    }
+
+    private String row(String sku, String description) {
+        return Stream.of(null, "producto", description, "http://img", "10.00", category.getId(),
+                        category.getName(), 5, sku, null, null, true)
+                .map(CsvCodec::escape)
+                .collect(Collectors.joining(","));
+    }
+
+    private ProductResponse read(String sku) {
+        BaseResponse response = productService.getProductBySku(sku);
+        assertThat(response.getHttpStatus()).isEqualTo(HttpStatus.OK);
+        return (ProductResponse) response.getData();
+    }
+
+    private static String newSku() {
+        return UUID.randomUUID().toString().substring(0, 20);
+    }
+}
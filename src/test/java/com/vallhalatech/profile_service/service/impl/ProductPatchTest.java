@@ -0,0 +1,104 @@
+package com.vallhalatech.profile_service.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vallhalatech.profile_service.persistence.entities.Category;
+import com.vallhalatech.profile_service.persistence.repositories.ICategoryRepository;
+import com.vallhalatech.profile_service.service.IProductService;
+import com.vallhalatech.profile_service.web.dtos.category.response.ProductResponse;
+import com.vallhalatech.profile_service.web.dtos.product.request.ProductRequest;
+import com.vallhalatech.profile_service.web.dtos.response.BaseResponse;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class ProductPatchTest {
+
+    @Autowired
+    private IProductService productService;
+
+    @Autowired
+    private ICategoryRepository categoryRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private Statistics statistics;
+    private Long categoryId;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        Category category = new Category();
+        category.setName("cat-" + UUID.randomUUID().toString().substring(0, 8));
+        categoryId = categoryRepository.save(category).getId();
+    }
+
+    @Test
+    void patchChangesOnlySuppliedFieldsAndBumpsVersion() throws Exception {
+        ProductResponse created = createProduct();
+
+        BaseResponse response = productService.patchProduct(created.getId(),
+                objectMapper.readTree("{\"price\": 12.50, \"sku\": null}"), created.getVersion());
+
+        ProductResponse patched = (ProductResponse) response.getData();
+        assertThat(response.getHttpStatus()).isEqualTo(HttpStatus.OK);
+        assertThat(patched.getPrice()).isEqualByComparingTo("12.50");
+        assertThat(patched.getSku()).isNull();
+        assertThat(patched.getDescription()).isEqualTo(created.getDescription());
+        assertThat(patched.getVersion()).isEqualTo(created.getVersion() + 1);
+    }
+
+    @Test
+    void patchWithoutRealChangesIssuesNoUpdate() throws Exception {
+        ProductResponse created = createProduct();
+        long updates = statistics.getEntityUpdateCount();
+
+        BaseResponse response = productService.patchProduct(created.getId(),
+                objectMapper.readTree("{\"name\": \"producto\", \"price\": 10}"), null);
+
+        assertThat(response.getHttpStatus()).isEqualTo(HttpStatus.OK);
+        assertThat(((ProductResponse) response.getData()).getVersion()).isEqualTo(created.getVersion());
+        assertThat(statistics.getEntityUpdateCount()).isEqualTo(updates);
+    }
+
+    @Test
+    void staleVersionAndInvalidValuesAreRejected() throws Exception {
+        ProductResponse created = createProduct();
+        productService.reserveStock(created.getId(), 1);
+
+        assertThat(productService.patchProduct(created.getId(),
+                objectMapper.readTree("{\"stock\": 3}"), created.getVersion()).getHttpStatus())
+                .isEqualTo(HttpStatus.CONFLICT);
+        assertThat(productService.patchProduct(created.getId(),
+                objectMapper.readTree("{\"description\": null}"), null).getHttpStatus())
+                .isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(productService.patchProduct(created.getId(),
+                objectMapper.readTree("{\"version\": 99}"), null).getHttpStatus())
+                .isEqualTo(HttpStatus.BAD_REQUEST);
+    }
+
+    private ProductResponse createProduct() {
+        ProductRequest request = new ProductRequest();
+        request.setName("producto");
+        request.setDescription("descripcion");
+        request.setImageUrl("http://img");
+        request.setPrice(BigDecimal.TEN);
+        request.setCategoryId(categoryId);
+        request.setStock(5);
+        request.setSku(UUID.randomUUID().toString().substring(0, 20));
+        return (ProductResponse) productService.addProduct(request).getData();
+    }
+}
@@ -0,0 +1,168 @@
+package com.vallhalatech.profile_service.service.impl;
+
+import com.vallhalatech.profile_service.persistence.entities.Category;
+import com.vallhalatech.profile_service.persistence.repositories.ICategoryRepository;
+import com.vallhalatech.profile_service.service.IProductService;
+import com.vallhalatech.profile_service.service.cache.SkuDirectory;
+import com.vallhalatech.profile_service.web.dtos.category.response.ProductResponse;
+import com.vallhalatech.profile_service.web.dtos.product.request.ProductRequest;
+import com.vallhalatech.profile_service.web.dtos.product.response.SkuResolveResponse;
+import com.vallhalatech.profile_service.web.dtos.response.BaseResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+
+@SpringBootTest
+class ProductSkuLookupTest {
+
+    @Autowired
+    private IProductService productService;
+
+    @Autowired
+    private ICategoryRepository categoryRepository;
+
+    @Autowired
+    private SkuDirectory skuDirectory;
+
+    private Long categoryId;
+
+    @BeforeEach
+    void setUp() {
+        Category category = new Category();
+        category.setName("cat-" + UUID.randomUUID().toString().substring(0, 8));
+        categoryId = categoryRepository.save(category).getId();
+        skuDirectory.reload();
+    }
+
+    @Test
+    void lookupFollowsCreateUpdateAndDelete() {
+        String sku = newSku();
+        Long id = createProduct(sku);
+        assertThat(skuDirectory.findId(sku)).isEqualTo(id);
+        assertThat(read(sku).getId()).isEqualTo(id);
+
+        String renamed = newSku();
+        ProductRequest update = request(renamed);
+        productService.updateProduct(id, update);
+        assertThat(skuDirectory.findId(sku)).isNull();
+        assertThat(productService.getProductBySku(sku).getHttpStatus()).isEqualTo(HttpStatus.NOT_FOUND);
+        assertThat(read(renamed).getId()).isEqualTo(id);
+
+        productService.deleteProduct(id);
+        assertThat(skuDirectory.findId(renamed)).isNull();
+        assertThat(productService.getProductBySku(renamed).getHttpStatus()).isEqualTo(HttpStatus.NOT_FOUND);
+    }
+
+    @Test
+    void staleDirectoryEntryFallsBackToDatabase() {
+        String sku = newSku();
+        Long id = createProduct(sku);
+        Long other = createProduct(newSku());
+
+        // Simula una asociación obsoleta (p. ej. un cambio hecho por otra instancia)
+        skuDirectory.evict(sku, id);
+        skuDirectory.remember(sku, other, skuDirectory.generation());
+
+        assertThat(read(sku).getId()).isEqualTo(id);
+        assertThat(skuDirectory.findId(sku)).isEqualTo(id);
+    }
+
+    @Test
+    void resolveDoesNotTrustStaleDirectoryEntries() {
+        String sku = newSku();
+        String deleted = newSku();
+        Long id = createProduct(sku);
+        Long other = createProduct(newSku());
+        Long deletedId = createProduct(deleted);
+
+        // Asociaciones obsoletas, como las que dejaría un cambio hecho por otra instancia
+        skuDirectory.evict(sku, id);
+        skuDirectory.remember(sku, other, skuDirectory.generation());
+        productService.deleteProduct(deletedId);
+        skuDirectory.remember(deleted, deletedId, skuDirectory.generation());
+
+        BaseResponse response = productService.resolveSkus(List.of(sku, deleted));
+
+        SkuResolveResponse resolved = (SkuResolveResponse) response.getData();
+        assertThat(resolved.getIds()).containsExactly(entry(sku, id));
+        assertThat(resolved.getMissingSkus()).containsExactly(deleted);
+        assertThat(skuDirectory.findId(sku)).isEqualTo(id);
+        assertThat(skuDirectory.findId(deleted)).isNull();
+    }
+
+    @Test
+    void rememberIgnoresReadsOlderThanAConcurrentDelete() {
+        String sku = newSku();
+        Long id = createProduct(sku);
+        skuDirectory.evict(sku, id);
+
+        // La lectura se hizo antes del borrado pero llega al directorio después
+        long observed = skuDirectory.generation();
+        productService.deleteProduct(id);
+        skuDirectory.remember(sku, id, observed);
+
+        assertThat(skuDirectory.findId(sku)).isNull();
+    }
+
+    @Test
+    void resolveKeepsRequestOrderAndReportsMissingSkus() {
+        String first = newSku();
+        String second = newSku();
+        Long firstId = createProduct(first);
+        Long secondId = createProduct(second);
+        // Un SKU que el directorio no conoce se resuelve en base de datos
+        skuDirectory.evict(second, secondId);
+        String unknown = newSku();
+
+        BaseResponse response = productService.resolveSkus(Arrays.asList(second, unknown, first, second, null));
+
+        assertThat(response.getHttpStatus()).isEqualTo(HttpStatus.OK);
+        SkuResolveResponse resolved = (SkuResolveResponse) response.getData();
+        assertThat(resolved.getIds()).containsExactly(entry(second, secondId), entry(first, firstId));
+        assertThat(resolved.getMissingSkus()).containsExactly(unknown);
+        assertThat(skuDirectory.findId(second)).isEqualTo(secondId);
+    }
+
+    @Test
+    void resolveRejectsEmptyRequests() {
+        assertThat(productService.resolveSkus(List.of()).getHttpStatus()).isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(productService.getProductBySku(" ").getHttpStatus()).isEqualTo(HttpStatus.BAD_REQUEST);
+    }
+
+    private ProductResponse read(String sku) {
+        BaseResponse response = productService.getProductBySku(sku);
+        assertThat(response.getHttpStatus()).isEqualTo(HttpStatus.OK);
+        return (ProductResponse) response.getData();
+    }
+
+    private Long createProduct(String sku) {
+        BaseResponse response = productService.addProduct(request(sku));
+        return ((ProductResponse) response.getData()).getId();
+    }
+
+    private ProductRequest request(String sku) {
+        ProductRequest request = new ProductRequest();
+        request.setName("producto");
+        request.setDescription("descripcion");
+        request.setImageUrl("http://img");
+        request.setPrice(BigDecimal.TEN);
+        request.setCategoryId(categoryId);
+        request.setStock(5);
+        request.setSku(sku);
+        return request;
+    }
+
+    private static String newSku() {
+        return UUID.randomUUID().toString().substring(0, 20);
+    }
+}
@@ -0,0 +1,134 @@
+package com.vallhalatech.profile_service.service.impl;
+
+import com.vallhalatech.profile_service.persistence.entities.Category;
+import com.vallhalatech.profile_service.persistence.entities.Product;
+import com.vallhalatech.profile_service.persistence.repositories.ICategoryRepository;
+import com.vallhalatech.profile_service.persistence.repositories.IProductRepository;
+import com.vallhalatech.profile_service.service.IProductService;
+import com.vallhalatech.profile_service.web.dtos.product.request.BulkStockUpdateRequest;
+import com.vallhalatech.profile_service.web.dtos.response.BaseResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class ProductStockConcurrencyTest {
+
+    private static final int THREADS = 16;
+    private static final int ATTEMPTS_PER_THREAD = 50;
+    private static final int INITIAL_STOCK = 500;
+
+    @Autowired
+    private IProductService productService;
+
+    @Autowired
+    private IProductRepository productRepository;
+
+    @Autowired
+    private ICategoryRepository categoryRepository;
+
+    private Category category;
+
+    @BeforeEach
+    void setUp() {
+        Category newCategory = new Category();
+        newCategory.setName("cat-" + UUID.randomUUID().toString().substring(0, 8));
+        category = categoryRepository.save(newCategory);
+    }
+
+    @Test
+    void concurrentReservationsNeverLoseUpdates() throws Exception {
+        Long productId = createProduct(INITIAL_STOCK);
+
+        // Se intentan reservar más unidades de las disponibles
+        List<Boolean> results = runConcurrently(() -> productService.reserveStock(productId, 1).getSuccess());
+
+        long succeeded = results.stream().filter(Boolean::booleanValue).count();
+        assertThat(succeeded).isEqualTo(INITIAL_STOCK);
+        // Exactamente cero: ni actualizaciones perdidas ni stock negativo
+        assertThat(currentStock(productId)).isZero();
+        assertThat(productService.reserveStock(productId, 1).getHttpStatus()).isEqualTo(HttpStatus.CONFLICT);
+        assertThat(currentStock(productId)).isZero();
+    }
+
+    @Test
+    void reserveReportsConflictOrNotFound() {
+        Long productId = createProduct(1);
+
+        assertThat(productService.reserveStock(productId, 2).getHttpStatus()).isEqualTo(HttpStatus.CONFLICT);
+        assertThat(productService.reserveStock(Long.MAX_VALUE, 1).getHttpStatus()).isEqualTo(HttpStatus.NOT_FOUND);
+        assertThat(productService.reserveStock(productId, 0).getHttpStatus()).isEqualTo(HttpStatus.BAD_REQUEST);
+
+        assertThat(productService.releaseStock(productId, 4).getSuccess()).isTrue();
+        assertThat(currentStock(productId)).isEqualTo(5);
+    }
+
+    @Test
+    void failedBulkBatchLeavesEveryRowUntouched() {
+        Long applied = createProduct(5);
+        Long overflowing = createProduct(5);
+
+        // El primer cambio es válido; el segundo desborda la columna y hace fallar el lote
+        BaseResponse response = productService.updateStockBulk(List.of(
+                deltaItem(applied, -1),
+                deltaItem(overflowing, Integer.MAX_VALUE)));
+
+        assertThat(response.getHttpStatus()).isEqualTo(HttpStatus.INTERNAL_SERVER_ERROR);
+        assertThat(currentStock(applied)).isEqualTo(5);
+        assertThat(currentStock(overflowing)).isEqualTo(5);
+    }
+
+    private List<Boolean> runConcurrently(Callable<Boolean> operation) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<Boolean>> futures = new ArrayList<>();
+            for (int i = 0; i < THREADS * ATTEMPTS_PER_THREAD; i++) {
+                futures.add(executor.submit(operation));
+            }
+            List<Boolean> results = new ArrayList<>();
+            for (Future<Boolean> future : futures) {
+                results.add(future.get(30, TimeUnit.SECONDS));
+            }
+            return results;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private Long createProduct(int stock) {
+        Product product = new Product();
+        product.setName("producto");
+        product.setDescription("descripcion");
+        product.setImageUrl("http://img");
+        product.setPrice(BigDecimal.TEN);
+        product.setCategory(category);
+        product.setStock(stock);
+        product.setSku(UUID.randomUUID().toString().substring(0, 20));
+        return productRepository.save(product).getId();
+    }
+
+    private static BulkStockUpdateRequest.Item deltaItem(Long productId, int delta) {
+        BulkStockUpdateRequest.Item item = new BulkStockUpdateRequest.Item();
+        item.setId(productId);
+        item.setDelta(delta);
+        return item;
+    }
+
+    private int currentStock(Long productId) {
+        return productRepository.findById(productId).orElseThrow().getStock();
+    }
+}
@@ -0,0 +1,145 @@
+package com.vallhalatech.profile_service.service.impl;
+
+import com.vallhalatech.profile_service.persistence.entities.Category;
+import com.vallhalatech.profile_service.persistence.entities.Product;
+import com.vallhalatech.profile_service.persistence.repositories.ICategoryRepository;
+import com.vallhalatech.profile_service.persistence.repositories.IProductRepository;
+import com.vallhalatech.profile_service.service.ICategoryService;
+import com.vallhalatech.profile_service.service.IProductService;
+import com.vallhalatech.profile_service.web.dtos.category.request.CategoryRequest;
+import com.vallhalatech.profile_service.web.dtos.category.response.CategoryResponse;
+import com.vallhalatech.profile_service.web.dtos.category.response.ProductResponse;
+import com.vallhalatech.profile_service.web.dtos.product.request.ProductRequest;
+import com.vallhalatech.profile_service.web.dtos.response.BaseResponse;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class SingleStatementWriteTest {
+
+    @Autowired
+    private IProductService productService;
+
+    @Autowired
+    private ICategoryService categoryService;
+
+    @Autowired
+    private ICategoryRepository categoryRepository;
+
+    @Autowired
+    private IProductRepository productRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private Long categoryId;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        categoryId = createCategory();
+    }
+
+    @Test
+    void productDeleteIsOneStatement() {
+        Long id = createProduct();
+
+        assertThat(statements(() -> productService.deleteProduct(id), HttpStatus.OK)).isEqualTo(1);
+        assertThat(statements(() -> productService.deleteProduct(id), HttpStatus.NOT_FOUND)).isEqualTo(1);
+        assertThat(productService.getProductById(id).getHttpStatus()).isEqualTo(HttpStatus.NOT_FOUND);
+    }
+
+    @Test
+    void categoryDeleteGuardsProductsInsideTheDelete() {
+        Long productId = createProduct();
+
+        // El DELETE no afecta a ninguna fila y una comprobación de existencia explica por qué
+        assertThat(statements(() -> categoryService.deleteCategory(categoryId), HttpStatus.BAD_REQUEST))
+                .isEqualTo(2);
+        assertThat(categoryService.getCategoryById(categoryId).getHttpStatus()).isEqualTo(HttpStatus.OK);
+
+        productService.deleteProduct(productId);
+        // El DELETE y la recarga del diccionario tras el commit
+        assertThat(statements(() -> categoryService.deleteCategory(categoryId), HttpStatus.OK)).isEqualTo(2);
+        assertThat(categoryService.getCategoryById(categoryId).getHttpStatus()).isEqualTo(HttpStatus.NOT_FOUND);
+        assertThat(statements(() -> categoryService.deleteCategory(categoryId), HttpStatus.NOT_FOUND)).isEqualTo(2);
+    }
+
+    @Test
+    void categoryDeleteDoesNotTrustTheInMemorySnapshot() {
+        // Categoría con productos que el diccionario aún no conoce (p. ej. creada por otra instancia)
+        Category category = new Category();
+        category.setName("cat-" + UUID.randomUUID().toString().substring(0, 8));
+        Category unknown = categoryRepository.save(category);
+        Product product = new Product();
+        product.setName("producto");
+        product.setDescription("descripcion");
+        product.setImageUrl("http://img");
+        product.setPrice(BigDecimal.TEN);
+        product.setCategory(unknown);
+        product.setStock(5);
+        product.setSku(UUID.randomUUID().toString().substring(0, 20));
+        productRepository.save(product);
+
+        assertThat(categoryService.deleteCategory(unknown.getId()).getHttpStatus()).isEqualTo(HttpStatus.BAD_REQUEST);
+    }
+
+    @Test
+    void categoryUpdateIsOneStatement() {
+        CategoryRequest request = categoryRequest();
+
+        // El UPDATE y la recarga del diccionario tras el commit
+        assertThat(statements(() -> categoryService.updateCategory(categoryId, request), HttpStatus.OK))
+                .isEqualTo(2);
+        CategoryResponse updated = (CategoryResponse) categoryService.getCategoryById(categoryId).getData();
+        assertThat(updated.getName()).isEqualTo(request.getName());
+
+        assertThat(statements(() -> categoryService.updateCategory(-1L, categoryRequest()), HttpStatus.NOT_FOUND))
+                .isEqualTo(1);
+    }
+
+    private long statements(Supplier<BaseResponse> write, HttpStatus expected) {
+        long before = statistics.getPrepareStatementCount();
+        BaseResponse response = write.get();
+        assertThat(response.getHttpStatus()).isEqualTo(expected);
+        return statistics.getPrepareStatementCount() - before;
+    }
+
+    private Long createCategory() {
+        BaseResponse response = categoryService.addCategory(categoryRequest());
+        return ((CategoryResponse) response.getData()).getId();
+    }
+
+    private CategoryRequest categoryRequest() {
+        CategoryRequest request = new CategoryRequest();
+        request.setName("cat-" + UUID.randomUUID().toString().substring(0, 8));
+        request.setDescription("descripcion");
+        return request;
+    }
+
+    private Long createProduct() {
+        ProductRequest request = new ProductRequest();
+        request.setName("producto");
+        request.setDescription("descripcion");
+        request.setImageUrl("http://img");
+        request.setPrice(BigDecimal.TEN);
+        request.setCategoryId(categoryId);
+        request.setStock(5);
+        request.setSku(UUID.randomUUID().toString().substring(0, 20));
+        BaseResponse response = productService.addProduct(request);
+        return ((ProductResponse) response.getData()).getId();
+    }
+}
@@ -0,0 +1,125 @@
+package com.vallhalatech.profile_service.service.search;
+
+import com.vallhalatech.profile_service.persistence.entities.Category;
+import com.vallhalatech.profile_service.persistence.repositories.ICategoryRepository;
+import com.vallhalatech.profile_service.service.IProductService;
+import com.vallhalatech.profile_service.service.cache.SkuDirectory;
+import com.vallhalatech.profile_service.web.dtos.category.response.ProductResponse;
+import com.vallhalatech.profile_service.web.dtos.product.request.ProductRequest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class ProductSearchIndexTest {
+
+    private static final int REBUILDERS = 2;
+    private static final int REBUILDS_PER_THREAD = 5;
+
+    @Autowired
+    private IProductService productService;
+
+    @Autowired
+    private ICategoryRepository categoryRepository;
+
+    @Autowired
+    private ProductSearchIndex productSearchIndex;
+
+    @Autowired
+    private SkuDirectory skuDirectory;
+
+    private Long categoryId;
+    private String term;
+
+    @BeforeEach
+    void setUp() {
+        Category category = new Category();
+        category.setName("cat-" + UUID.randomUUID().toString().substring(0, 8));
+        categoryId = categoryRepository.save(category).getId();
+        term = "rebuild" + UUID.randomUUID().toString().substring(0, 8);
+    }
+
+    @Test
+    void overlappingRebuildsKeepChangesArrivingMeanwhile() throws Exception {
+        Map<String, Long> created = new ConcurrentHashMap<>();
+        List<Long> deleted = new ArrayList<>();
+        AtomicBoolean rebuilding = new AtomicBoolean(true);
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(REBUILDERS + 1);
+        try {
+            List<Future<?>> rebuilds = new ArrayList<>();
+            for (int i = 0; i < REBUILDERS; i++) {
+                rebuilds.add(executor.submit(() -> {
+                    start.await();
+                    for (int j = 0; j < REBUILDS_PER_THREAD; j++) {
+                        productSearchIndex.rebuild();
+                        skuDirectory.reload();
+                        productSearchIndex.requestRebuild();
+                        skuDirectory.requestReload();
+                    }
+                    return null;
+                }));
+            }
+            // Altas y bajas mientras las reconstrucciones se solapan
+            Future<?> writer = executor.submit(() -> {
+                start.await();
+                int i = 0;
+                while (rebuilding.get()) {
+                    String sku = UUID.randomUUID().toString().substring(0, 20);
+                    Long id = createProduct(term + " " + i++, sku);
+                    if (i % 3 == 0) {
+                        productService.deleteProduct(id);
+                        deleted.add(id);
+                    } else {
+                        created.put(sku, id);
+                    }
+                }
+                return null;
+            });
+
+            start.countDown();
+            for (Future<?> rebuild : rebuilds) {
+                rebuild.get(60, TimeUnit.SECONDS);
+            }
+            rebuilding.set(false);
+            writer.get(60, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(created).isNotEmpty();
+        assertThat(productSearchIndex.isReady()).isTrue();
+        assertThat(productSearchIndex.search(term, categoryId))
+                .containsExactlyInAnyOrderElementsOf(created.values())
+                .doesNotContainAnyElementsOf(deleted);
+        created.forEach((sku, id) -> assertThat(skuDirectory.findId(sku)).isEqualTo(id));
+    }
+
+    private Long createProduct(String name, String sku) {
+        ProductRequest request = new ProductRequest();
+        request.setName(name);
+        request.setDescription("descripcion");
+        request.setImageUrl("http://img");
+        request.setPrice(BigDecimal.TEN);
+        request.setCategoryId(categoryId);
+        request.setStock(5);
+        request.setSku(sku);
+        return ((ProductResponse) productService.addProduct(request).getData()).getId();
+    }
+}
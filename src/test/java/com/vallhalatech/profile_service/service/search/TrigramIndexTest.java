@@ -0,0 +1,60 @@
+package com.vallhalatech.profile_service.service.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TrigramIndexTest {
+
+    private TrigramIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new TrigramIndex();
+        index.upsert(1L, "Camiseta de algodón", 10L);
+        index.upsert(2L, "Algodón orgánico", 20L);
+        index.upsert(3L, "Pantalón vaquero", 10L);
+        index.upsert(4L, "Bolsa de algodon reciclado", 10L);
+    }
+
+    @Test
+    void matchesLikeSemanticsIgnoringCaseAndAccents() {
+        assertThat(index.search("ALGODON", null)).containsExactlyInAnyOrder(1L, 2L, 4L);
+        assertThat(index.search("vaq", null)).containsExactly(3L);
+        assertThat(index.search("zzz", null)).isEmpty();
+    }
+
+    @Test
+    void ordersByRelevance() {
+        // Prefijo del nombre, luego inicio de palabra (nombre más corto primero)
+        assertThat(index.search("algod", null)).containsExactly(2L, 1L, 4L);
+    }
+
+    @Test
+    void filtersByCategory() {
+        assertThat(index.search("algodon", 10L)).containsExactly(1L, 4L);
+    }
+
+    @Test
+    void shortTermsFallBackToScan() {
+        assertThat(index.search("de", null)).containsExactlyInAnyOrder(1L, 4L);
+    }
+
+    @Test
+    void trigramsMustBeContiguous() {
+        // "camdon" comparte trigramas con el índice pero no es subcadena de ningún nombre
+        assertThat(index.search("camdon", null)).isEmpty();
+    }
+
+    @Test
+    void keepsPostingsInSyncOnUpdateAndRemove() {
+        index.upsert(2L, "Lino natural", 20L);
+        assertThat(index.search("algodon", null)).containsExactlyInAnyOrder(1L, 4L);
+        assertThat(index.search("lino", null)).containsExactly(2L);
+
+        index.remove(1L);
+        assertThat(index.search("algodon", null)).containsExactly(4L);
+        assertThat(index.size()).isEqualTo(3);
+    }
+}
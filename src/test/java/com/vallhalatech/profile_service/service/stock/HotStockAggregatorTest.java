@@ -0,0 +1,192 @@
+package com.vallhalatech.profile_service.service.stock;
+
+import com.vallhalatech.profile_service.persistence.entities.Category;
+import com.vallhalatech.profile_service.persistence.entities.Product;
+import com.vallhalatech.profile_service.persistence.jdbc.ProductJdbcRepository;
+import com.vallhalatech.profile_service.persistence.repositories.ICategoryRepository;
+import com.vallhalatech.profile_service.persistence.repositories.IProductRepository;
+import com.vallhalatech.profile_service.persistence.repositories.IStockFlushCheckpointRepository;
+import com.vallhalatech.profile_service.persistence.repositories.IStockFlushRejectionRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class HotStockAggregatorTest {
+
+    private static final int THREADS = 16;
+    private static final int ATTEMPTS_PER_THREAD = 100;
+
+    @Autowired
+    private ProductJdbcRepository productJdbcRepository;
+
+    @Autowired
+    private IStockFlushCheckpointRepository checkpointRepository;
+
+    @Autowired
+    private IStockFlushRejectionRepository rejectionRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private IProductRepository productRepository;
+
+    @Autowired
+    private ICategoryRepository categoryRepository;
+
+    @TempDir
+    Path journalDir;
+
+    private String nodeId;
+    private Category category;
+
+    @BeforeEach
+    void setUp() {
+        nodeId = "test-" + UUID.randomUUID();
+        Category newCategory = new Category();
+        newCategory.setName("cat-" + UUID.randomUUID().toString().substring(0, 8));
+        category = categoryRepository.save(newCategory);
+    }
+
+    @Test
+    void concurrentReservationsNeverGoBelowFloor() throws Exception {
+        long productId = createProduct(500);
+        HotStockAggregator aggregator = start(productId);
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<Integer>> futures = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            futures.add(executor.submit(() -> {
+                int applied = 0;
+                for (int i = 0; i < ATTEMPTS_PER_THREAD; i++) {
+                    if (aggregator.apply(productId, -1) == HotStockAggregator.Outcome.APPLIED) {
+                        applied++;
+                    }
+                    // Vaciados intercalados con las reservas
+                    if (i % 25 == 0) {
+                        aggregator.flush();
+                    }
+                }
+                return applied;
+            }));
+        }
+        int applied = 0;
+        for (Future<Integer> future : futures) {
+            applied += future.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+        aggregator.flush();
+
+        assertThat(applied).isEqualTo(500);
+        assertThat(productJdbcRepository.findStock(productId)).isZero();
+        assertThat(aggregator.apply(productId, -1)).isEqualTo(HotStockAggregator.Outcome.INSUFFICIENT_STOCK);
+        aggregator.shutdown();
+    }
+
+    @Test
+    void replaysJournalExactlyOnceAfterCrash() throws Exception {
+        long productId = createProduct(100);
+        HotStockAggregator crashed = start(productId);
+        crashed.apply(productId, -30);
+        crashed.apply(productId, 5);
+        // Sin flush: simula una caída con los deltas solo en el diario
+        assertThat(productJdbcRepository.findStock(productId)).isEqualTo(100);
+
+        start(productId);
+        assertThat(productJdbcRepository.findStock(productId)).isEqualTo(75);
+
+        // Un segundo arranque no vuelve a aplicar lo que ya cubre el checkpoint
+        HotStockAggregator restarted = start(productId);
+        assertThat(productJdbcRepository.findStock(productId)).isEqualTo(75);
+        assertThat(restarted.apply(productId, -75)).isEqualTo(HotStockAggregator.Outcome.APPLIED);
+        restarted.flush();
+        assertThat(productJdbcRepository.findStock(productId)).isZero();
+    }
+
+    @Test
+    void rejectedDeltaIsKeptAndBlocksTheProductUntilApplied() throws Exception {
+        long productId = createProduct(10);
+        HotStockAggregator aggregator = start(productId);
+        assertThat(aggregator.apply(productId, -8)).isEqualTo(HotStockAggregator.Outcome.APPLIED);
+
+        // Una escritura fuera del modo hot deja el stock real por debajo del suelo en memoria
+        jdbcTemplate.update("UPDATE product SET stock = 5 WHERE id = ?", productId);
+        aggregator.flush();
+
+        assertThat(productJdbcRepository.findStock(productId)).isEqualTo(5);
+        assertThat(aggregator.blockedDelta(productId)).isEqualTo(-8);
+        assertThat(rejectionRepository.findById(productId)).isPresent();
+        assertThat(aggregator.apply(productId, -1)).isEqualTo(HotStockAggregator.Outcome.BLOCKED);
+        assertThat(aggregator.apply(productId, 1)).isEqualTo(HotStockAggregator.Outcome.BLOCKED);
+
+        // El rechazo sobrevive a un reinicio aunque el checkpoint ya haya avanzado
+        HotStockAggregator restarted = start(productId);
+        assertThat(restarted.apply(productId, -1)).isEqualTo(HotStockAggregator.Outcome.BLOCKED);
+        assertThat(productJdbcRepository.findStock(productId)).isEqualTo(5);
+
+        // Con stock suficiente el delta pendiente se aplica en el siguiente vaciado
+        jdbcTemplate.update("UPDATE product SET stock = 20 WHERE id = ?", productId);
+        restarted.flush();
+
+        assertThat(productJdbcRepository.findStock(productId)).isEqualTo(12);
+        assertThat(restarted.blockedDelta(productId)).isNull();
+        assertThat(rejectionRepository.findById(productId)).isEmpty();
+        assertThat(restarted.apply(productId, -12)).isEqualTo(HotStockAggregator.Outcome.APPLIED);
+        restarted.shutdown();
+        assertThat(productJdbcRepository.findStock(productId)).isZero();
+    }
+
+    @Test
+    void unknownProductIsNotFound() throws Exception {
+        HotStockAggregator aggregator = start(Long.MAX_VALUE);
+
+        assertThat(aggregator.apply(Long.MAX_VALUE, -1)).isEqualTo(HotStockAggregator.Outcome.NOT_FOUND);
+        aggregator.shutdown();
+    }
+
+    private HotStockAggregator start(long hotId) throws Exception {
+        HotStockAggregator aggregator = new HotStockAggregator(productJdbcRepository, checkpointRepository,
+                rejectionRepository, transactionManager, eventPublisher, new SimpleMeterRegistry(),
+                true, Set.of(hotId), journalDir.toString(), nodeId, false);
+        aggregator.recover();
+        return aggregator;
+    }
+
+    private long createProduct(int stock) {
+        Product product = new Product();
+        product.setName("Producto hot");
+        product.setDescription("Descripción");
+        product.setImageUrl("https://example.com/p.png");
+        product.setPrice(BigDecimal.TEN);
+        product.setCategory(category);
+        product.setStock(stock);
+        product.setSku("SKU-" + UUID.randomUUID().toString().substring(0, 8));
+        return productRepository.save(product).getId();
+    }
+}